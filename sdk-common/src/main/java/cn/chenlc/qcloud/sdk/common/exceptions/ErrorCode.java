@@ -33,4 +33,9 @@ public class ErrorCode {
     static final int SERVER_EXCEPTION = -12;
 
     static final int NETWORK_EXCEPTION = -13;
+
+    /**
+     * 请求被主动取消
+     */
+    static final int CANCELLED_EXCEPTION = -14;
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.common.http;
+
+import java.io.InterruptedIOException;
+
+/**
+ * 字节预算，限制同时占用的数据总量。占用超出预算时，申请方阻塞直到其他申请方释放。
+ * <p>
+ * 单次申请超过总预算时按总预算计，即该申请独占全部预算，避免永远无法满足。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class ByteBudget {
+
+    private final long capacity;
+    private long used;
+
+    /**
+     * @param capacity 总预算，单位字节
+     */
+    public ByteBudget(long capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive!");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * 申请预算，预算不足时阻塞等待
+     *
+     * @param bytes 申请的字节数
+     * @return 实际占用的字节数，释放时传入该值
+     * @throws InterruptedIOException 等待时线程被中断
+     */
+    public synchronized long acquire(long bytes) throws InterruptedIOException {
+        long granted = Math.max(0, Math.min(bytes, capacity));
+        try {
+            while (used + granted > capacity) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Waiting for byte budget interrupted.");
+        }
+        used += granted;
+        return granted;
+    }
+
+    /**
+     * 释放预算
+     *
+     * @param bytes {@link #acquire(long)} 返回的字节数
+     */
+    public synchronized void release(long bytes) {
+        used = Math.max(0, used - bytes);
+        notifyAll();
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 当前已占用的字节数
+     *
+     * @return 字节数
+     */
+    public synchronized long getUsed() {
+        return used;
+    }
+}
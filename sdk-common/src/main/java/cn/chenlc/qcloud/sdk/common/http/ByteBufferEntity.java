@@ -0,0 +1,160 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.common.http;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+
+/**
+ * 以一组 {@link ByteBuffer} 的剩余数据依次拼接作为请求体，支持直接缓冲区。
+ * <p>
+ * 发送和读取均基于缓冲区副本，不修改原缓冲区的位置，实体可重复发送，也可被多个线程并发发送。
+ * 实体不负责缓冲区的回收，缓冲区必须在实体不再使用后才能归还。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class ByteBufferEntity extends AbstractHttpEntity {
+
+    /** 直接缓冲区写出到输出流时的中转大小 */
+    private static final int TRANSFER_SIZE = 8 * 1024;
+
+    private static final ThreadLocal<byte[]> TRANSFER_BUFFER = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[TRANSFER_SIZE];
+        }
+    };
+
+    private final ByteBuffer[] buffers;
+    private final long length;
+
+    public ByteBufferEntity(ByteBuffer... buffers) {
+        this(ContentType.APPLICATION_OCTET_STREAM, buffers);
+    }
+
+    public ByteBufferEntity(ContentType contentType, ByteBuffer... buffers) {
+        if (buffers == null) {
+            throw new IllegalArgumentException("buffers can not be null!");
+        }
+        long total = 0;
+        this.buffers = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            this.buffers[i] = buffers[i].duplicate();
+            total += buffers[i].remaining();
+        }
+        this.length = total;
+        if (contentType != null) {
+            setContentType(contentType.toString());
+        }
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return length;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new BuffersInputStream();
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        if (outStream == null) {
+            throw new IllegalArgumentException("Output stream may not be null");
+        }
+        byte[] transfer = TRANSFER_BUFFER.get();
+        for (ByteBuffer buffer : buffers) {
+            ByteBuffer src = buffer.duplicate();
+            if (src.hasArray()) {
+                outStream.write(src.array(), src.arrayOffset() + src.position(), src.remaining());
+                continue;
+            }
+            while (src.hasRemaining()) {
+                int n = Math.min(transfer.length, src.remaining());
+                src.get(transfer, 0, n);
+                outStream.write(transfer, 0, n);
+            }
+        }
+        outStream.flush();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * 以实体数据更新摘要，直接读取缓冲区，不复制整段数据
+     *
+     * @param digest 摘要
+     */
+    public void updateDigest(MessageDigest digest) {
+        for (ByteBuffer buffer : buffers) {
+            digest.update(buffer.duplicate());
+        }
+    }
+
+    /**
+     * 依次读取各缓冲区副本的输入流
+     */
+    private class BuffersInputStream extends InputStream {
+        private int index;
+        private ByteBuffer current = buffers.length == 0 ? null : buffers[0].duplicate();
+
+        @Override
+        public int read() throws IOException {
+            ByteBuffer src = next();
+            return src == null ? -1 : src.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            ByteBuffer src = next();
+            if (src == null) {
+                return -1;
+            }
+            int n = Math.min(len, src.remaining());
+            src.get(b, off, n);
+            return n;
+        }
+
+        private ByteBuffer next() {
+            while (current != null && !current.hasRemaining()) {
+                current = ++index < buffers.length ? buffers[index].duplicate() : null;
+            }
+            return current;
+        }
+    }
+}
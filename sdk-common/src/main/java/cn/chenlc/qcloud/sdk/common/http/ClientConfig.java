@@ -47,6 +47,8 @@ public class ClientConfig {
     private static final String DEFAULT_USER_AGENT = "cn.chenlc.qcloud.sdk v1.0.0";
     /* 发生网络异常时，默认的重试次数 */
     private static final int DEFAULT_MAX_RETRIES = 3;
+    /* 默认的同时在途上传数据最大字节数，-1表示不限制 */
+    private static final long DEFAULT_MAX_INFLIGHT_BYTES = -1;
 
 
     private int maxConnectionCount = DEFAULT_MAX_CONNECTION_COUNT;
@@ -56,6 +58,8 @@ public class ClientConfig {
     private int monitorSleepTime = DEFAULT_MONITOR_SLEEP_TIME;
     private int connectionMaxIdleTime = DEFAULT_MAX_IDLE_TIME;
     private int maxRetries = DEFAULT_MAX_RETRIES;
+    private long maxInflightBytes = DEFAULT_MAX_INFLIGHT_BYTES;
+    private TokenBucketRateLimiter uploadRateLimiter;
     private String userAgent = DEFAULT_USER_AGENT;
     private Region region;
 
@@ -122,6 +126,36 @@ public class ClientConfig {
         return this;
     }
 
+    public long getMaxInflightBytes() {
+        return maxInflightBytes;
+    }
+
+    /**
+     * 设置客户端内所有上传同时在途的分片数据及内存暂存数据的总字节数，超出时上传阻塞等待
+     *
+     * @param maxInflightBytes 最大字节数，-1表示不限制
+     * @return 当前配置
+     */
+    public ClientConfig setMaxInflightBytes(long maxInflightBytes) {
+        this.maxInflightBytes = maxInflightBytes;
+        return this;
+    }
+
+    public TokenBucketRateLimiter getUploadRateLimiter() {
+        return uploadRateLimiter;
+    }
+
+    /**
+     * 设置客户端内所有上传共享的限速器，持有该实例即可在运行时调整速率
+     *
+     * @param uploadRateLimiter 限速器，为null表示不限速
+     * @return 当前配置
+     */
+    public ClientConfig setUploadRateLimiter(TokenBucketRateLimiter uploadRateLimiter) {
+        this.uploadRateLimiter = uploadRateLimiter;
+        return this;
+    }
+
     public String getUserAgent() {
         return userAgent;
     }
@@ -16,6 +16,7 @@
 
 package cn.chenlc.qcloud.sdk.common.http;
 
+import cn.chenlc.qcloud.sdk.common.exceptions.CancelledException;
 import cn.chenlc.qcloud.sdk.common.exceptions.NetworkException;
 import cn.chenlc.qcloud.sdk.common.exceptions.ParamException;
 import cn.chenlc.qcloud.sdk.common.exceptions.QcloudSdkException;
@@ -77,6 +78,10 @@ public class DefaultQcloudHttpClient extends QcloudHttpClient {
             setHeaders(httpPost, request.getHeaders());
             httpPost.setEntity(request.getBody());
 
+            RequestCanceller canceller = request.getCanceller();
+            if (canceller != null) {
+                canceller.register(httpPost);
+            }
             //noinspection Duplicates
             try {
                 HttpResponse response = httpClient.execute(httpPost);
@@ -92,11 +97,17 @@ public class DefaultQcloudHttpClient extends QcloudHttpClient {
                     throw new ParamException(errMsg);
                 }
             } catch (IOException e) {
+                if (canceller != null && canceller.isCancelled()) {
+                    throw new CancelledException("Request cancelled: " + request.getUrl());
+                }
                 retry++;
                 if (retry == maxRetries) {
                     throw new NetworkException("HttpRequest: " + request + "\nException: " + e);
                 }
             } finally {
+                if (canceller != null) {
+                    canceller.unregister(httpPost);
+                }
                 httpPost.releaseConnection();
             }
         }
@@ -130,6 +141,10 @@ public class DefaultQcloudHttpClient extends QcloudHttpClient {
             httpGet.setConfig(this.requestConfig);
             setHeaders(httpGet, request.getHeaders());
 
+            RequestCanceller canceller = request.getCanceller();
+            if (canceller != null) {
+                canceller.register(httpGet);
+            }
             //noinspection Duplicates
             try {
                 HttpResponse response = httpClient.execute(httpGet);
@@ -145,11 +160,17 @@ public class DefaultQcloudHttpClient extends QcloudHttpClient {
                     throw new ParamException(errMsg);
                 }
             } catch (IOException e) {
+                if (canceller != null && canceller.isCancelled()) {
+                    throw new CancelledException("Request cancelled: " + request.getUrl());
+                }
                 retry++;
                 if (retry == maxRetries) {
                     throw new NetworkException("HttpRequeest: " + request + "\nException: " + e);
                 }
             } finally {
+                if (canceller != null) {
+                    canceller.unregister(httpGet);
+                }
                 httpGet.releaseConnection();
             }
         }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.common.http;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 以文件的一段区域作为请求体，数据通过 {@link FileChannel#transferTo} 直接写出，不在堆上复制整段数据。
+ * <p>
+ * 读写均使用绝对位置，多个实体可以共享同一个 FileChannel 并发发送；实体不负责关闭 FileChannel。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class FileRegionEntity extends AbstractHttpEntity {
+
+    private final FileChannel channel;
+    private final long position;
+    private final long length;
+
+    public FileRegionEntity(FileChannel channel, long position, long length) {
+        this(channel, position, length, ContentType.APPLICATION_OCTET_STREAM);
+    }
+
+    public FileRegionEntity(FileChannel channel, long position, long length, ContentType contentType) {
+        if (channel == null) {
+            throw new IllegalArgumentException("channel can not be null!");
+        }
+        if (position < 0 || length < 0) {
+            throw new IllegalArgumentException("position and length must not be negative!");
+        }
+        this.channel = channel;
+        this.position = position;
+        this.length = length;
+        if (contentType != null) {
+            setContentType(contentType.toString());
+        }
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return length;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new RegionInputStream();
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        if (outStream == null) {
+            throw new IllegalArgumentException("Output stream may not be null");
+        }
+        WritableByteChannel target = Channels.newChannel(outStream);
+        long pos = position;
+        long end = position + length;
+        while (pos < end) {
+            long n = channel.transferTo(pos, end - pos, target);
+            if (n <= 0) {
+                // transferTo 在到达文件末尾时返回0
+                if (pos >= channel.size()) {
+                    throw new EOFException("File truncated at offset " + pos);
+                }
+                continue;
+            }
+            pos += n;
+        }
+        outStream.flush();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * 按绝对位置读取文件区域的输入流
+     */
+    private class RegionInputStream extends InputStream {
+        private long pos = position;
+        private final long end = position + length;
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            return n <= 0 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (pos >= end) {
+                return -1;
+            }
+            int toRead = (int) Math.min(len, end - pos);
+            int n = channel.read(ByteBuffer.wrap(b, off, toRead), pos);
+            if (n < 0) {
+                return -1;
+            }
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, end - pos);
+        }
+    }
+}
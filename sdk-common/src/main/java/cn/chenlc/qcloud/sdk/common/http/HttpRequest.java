@@ -40,6 +40,9 @@ public class HttpRequest {
     private HttpEntity body;
 //    private byte[] body;
 
+    /** 请求取消器，为null时请求不可取消 */
+    private RequestCanceller canceller;
+
     public String getUrl() {
         return url;
     }
@@ -103,6 +106,15 @@ public class HttpRequest {
         this.body = body;
     }
 
+    public RequestCanceller getCanceller() {
+        return canceller;
+    }
+
+    public HttpRequest setCanceller(RequestCanceller canceller) {
+        this.canceller = canceller;
+        return this;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
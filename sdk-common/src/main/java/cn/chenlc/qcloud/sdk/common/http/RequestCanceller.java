@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.common.http;
+
+import org.apache.http.client.methods.HttpRequestBase;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * 请求取消器，记录正在执行的请求，取消时立即中止全部请求并释放其占用的连接。
+ * <p>
+ * 取消后再登记的请求会被立即中止，取消不可撤销。取消器可以派生子取消器，
+ * 取消父取消器时同时取消全部子取消器，子取消器可单独取消而不影响父取消器。线程安全。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class RequestCanceller {
+
+    private final Set<HttpRequestBase> running =
+            Collections.newSetFromMap(new IdentityHashMap<HttpRequestBase, Boolean>());
+    private final Set<RequestCanceller> children =
+            Collections.newSetFromMap(new IdentityHashMap<RequestCanceller, Boolean>());
+    private final RequestCanceller parent;
+    private volatile boolean cancelled;
+
+    public RequestCanceller() {
+        this(null);
+    }
+
+    private RequestCanceller(RequestCanceller parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * 派生子取消器，父取消器已取消时子取消器也处于取消状态。不再使用时调用 {@link #detach()}
+     *
+     * @return 子取消器
+     */
+    public RequestCanceller newChild() {
+        RequestCanceller child = new RequestCanceller(this);
+        synchronized (running) {
+            if (!cancelled) {
+                children.add(child);
+                return child;
+            }
+        }
+        child.cancel();
+        return child;
+    }
+
+    /**
+     * 从父取消器中移除，之后取消父取消器不再影响本取消器
+     */
+    public void detach() {
+        if (parent != null) {
+            synchronized (parent.running) {
+                parent.children.remove(this);
+            }
+        }
+    }
+
+    /**
+     * 登记即将执行的请求，已取消时立即中止该请求
+     *
+     * @param request 请求
+     */
+    public void register(HttpRequestBase request) {
+        synchronized (running) {
+            if (!cancelled) {
+                running.add(request);
+                return;
+            }
+        }
+        request.abort();
+    }
+
+    /**
+     * 请求结束后注销
+     *
+     * @param request 请求
+     */
+    public void unregister(HttpRequestBase request) {
+        synchronized (running) {
+            running.remove(request);
+        }
+    }
+
+    /**
+     * 取消并中止所有正在执行的请求
+     */
+    public void cancel() {
+        HttpRequestBase[] requests;
+        RequestCanceller[] cancellers;
+        synchronized (running) {
+            cancelled = true;
+            requests = running.toArray(new HttpRequestBase[running.size()]);
+            running.clear();
+            cancellers = children.toArray(new RequestCanceller[children.size()]);
+            children.clear();
+        }
+        for (HttpRequestBase request : requests) {
+            request.abort();
+        }
+        for (RequestCanceller child : cancellers) {
+            child.cancel();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.common.http;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 限速请求体，写出数据时依次向各限速器申请令牌，其余行为与被包装的实体一致
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class ThrottledEntity extends HttpEntityWrapper {
+
+    /** 单次申请令牌的最大字节数，避免大块写出造成突发 */
+    private static final int MAX_CHUNK = 16 * 1024;
+
+    private final List<TokenBucketRateLimiter> limiters;
+
+    private ThrottledEntity(HttpEntity entity, List<TokenBucketRateLimiter> limiters) {
+        super(entity);
+        this.limiters = limiters;
+    }
+
+    /**
+     * 按给定的限速器包装实体，忽略为null的限速器，没有限速器时直接返回原实体
+     *
+     * @param entity 原实体
+     * @param limiters 限速器
+     * @return 限速后的实体
+     */
+    public static HttpEntity wrap(HttpEntity entity, TokenBucketRateLimiter... limiters) {
+        List<TokenBucketRateLimiter> effective = new ArrayList<>(limiters.length);
+        for (TokenBucketRateLimiter limiter : limiters) {
+            if (limiter != null) {
+                effective.add(limiter);
+            }
+        }
+        return effective.isEmpty() ? entity : new ThrottledEntity(entity, effective);
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        wrappedEntity.writeTo(new ThrottledOutputStream(outStream));
+    }
+
+    private class ThrottledOutputStream extends FilterOutputStream {
+
+        ThrottledOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            acquire(1);
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int n = Math.min(len, MAX_CHUNK);
+                acquire(n);
+                out.write(b, off, n);
+                off += n;
+                len -= n;
+            }
+        }
+
+        private void acquire(int bytes) throws IOException {
+            for (TokenBucketRateLimiter limiter : limiters) {
+                limiter.acquire(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.common.http;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶限速器，按字节计量。令牌以 bytesPerSecond 的速率补充，桶中最多积累 burstBytes 个令牌。
+ * <p>
+ * 申请时只要桶中令牌不为负即可通过，通过后扣除全部申请量，不足部分记为欠账，由后续申请等待补足；
+ * 因此单次申请可以超过桶容量，长期平均速率仍不超过设定值。速率可在运行时修改，多个线程可共享同一个实例。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class TokenBucketRateLimiter {
+
+    private long bytesPerSecond;
+    private long burstBytes;
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+
+    /**
+     * 创建限速器，桶容量为一秒的流量
+     *
+     * @param bytesPerSecond 每秒字节数，小于等于0表示不限速
+     */
+    public TokenBucketRateLimiter(long bytesPerSecond) {
+        this(bytesPerSecond, bytesPerSecond);
+    }
+
+    /**
+     * @param bytesPerSecond 每秒字节数，小于等于0表示不限速
+     * @param burstBytes 桶容量，即空闲后允许的最大突发字节数
+     */
+    public TokenBucketRateLimiter(long bytesPerSecond, long burstBytes) {
+        setRate(bytesPerSecond, burstBytes);
+        this.tokens = this.burstBytes;
+    }
+
+    /**
+     * 修改速率，桶容量为一秒的流量，立即对等待中的申请生效
+     *
+     * @param bytesPerSecond 每秒字节数，小于等于0表示不限速
+     */
+    public void setRate(long bytesPerSecond) {
+        setRate(bytesPerSecond, bytesPerSecond);
+    }
+
+    /**
+     * 修改速率和桶容量，立即对等待中的申请生效
+     *
+     * @param bytesPerSecond 每秒字节数，小于等于0表示不限速
+     * @param burstBytes 桶容量
+     */
+    public synchronized void setRate(long bytesPerSecond, long burstBytes) {
+        refill();
+        this.bytesPerSecond = bytesPerSecond;
+        this.burstBytes = Math.max(0, burstBytes);
+        this.tokens = Math.min(tokens, this.burstBytes);
+        notifyAll();
+    }
+
+    public synchronized long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    public synchronized long getBurstBytes() {
+        return burstBytes;
+    }
+
+    /**
+     * 申请发送指定字节数，令牌不足时阻塞等待
+     *
+     * @param bytes 字节数
+     * @throws InterruptedIOException 等待时线程被中断
+     */
+    public synchronized void acquire(long bytes) throws InterruptedIOException {
+        try {
+            while (true) {
+                if (bytesPerSecond <= 0) {
+                    return;
+                }
+                refill();
+                if (tokens >= 0) {
+                    tokens -= bytes;
+                    return;
+                }
+                long waitNanos = (long) (-tokens * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond);
+                TimeUnit.NANOSECONDS.timedWait(this, Math.max(1, waitNanos));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Waiting for rate limiter interrupted.");
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        if (bytesPerSecond > 0) {
+            tokens = Math.min(burstBytes, tokens + (now - lastRefill) * (double) bytesPerSecond / TimeUnit.SECONDS.toNanos(1));
+        }
+        lastRefill = now;
+    }
+}
@@ -17,12 +17,27 @@
 package cn.chenlc.qcloud.sdk.vod;
 
 import cn.chenlc.qcloud.sdk.common.exceptions.QcloudSdkException;
+import cn.chenlc.qcloud.sdk.common.http.TokenBucketRateLimiter;
+import cn.chenlc.qcloud.sdk.vod.upload.BatchUpload;
+import cn.chenlc.qcloud.sdk.vod.upload.DedupeStore;
+import cn.chenlc.qcloud.sdk.vod.upload.HashScheduler;
+import cn.chenlc.qcloud.sdk.vod.upload.PartScheduler;
+import cn.chenlc.qcloud.sdk.vod.upload.PartSizePolicy;
+import cn.chenlc.qcloud.sdk.vod.upload.Sha1Cache;
+import cn.chenlc.qcloud.sdk.vod.upload.SpeculativeResendPolicy;
+import cn.chenlc.qcloud.sdk.vod.upload.UploadHandle;
+import cn.chenlc.qcloud.sdk.vod.upload.UploadProgressListener;
+import cn.chenlc.qcloud.sdk.vod.vo.MultiPullResult;
 import cn.chenlc.qcloud.sdk.vod.vo.UploadSuccessResponse;
 import cn.chenlc.qcloud.sdk.vod.vo.UploadInitResponse;
 
 import java.io.File;
+import java.io.FileFilter;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -127,6 +142,85 @@ public interface IVodUpload {
      */
     UploadSuccessResponse uploadVodFile(File file, String fileType, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException;
 
+    /**
+     * 分片上传视频文件，封装切分和分片上传逻辑， 文件类型通过后缀名获取
+     *
+     * @param path 要上传的文件路径
+     * @param optionalParams 可选参数
+     * @throws QcloudSdkException 上传失败时抛出
+     * @throws FileNotFoundException 找不到指定文件时抛出
+     */
+    UploadSuccessResponse uploadVodFile(Path path, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException;
+
+    /**
+     * 跟随仍在写入的视频文件上传，文件类型通过后缀名获取。
+     * <p>
+     * 初始化上传需要文件最终的SHA和大小，因此写入过程中只在本地增量计算文件SHA和各分片MD5，
+     * 写入方关闭文件（调用 {@link TailFollowParams#markWriterClosed()} 或文件在空闲超时内不再增长）后，
+     * 只需读取最后追加的数据即可得到完整摘要，随即初始化并上传，无需再完整读取一遍文件
+     *
+     * @param file 正在写入的文件
+     * @param tailParams 跟随参数，为null时使用默认值
+     * @param optionalParams 可选参数
+     * @return 上传结果
+     * @throws QcloudSdkException 上传失败时抛出
+     * @throws IOException 读取文件失败、文件被截断或等待时线程被中断时抛出
+     */
+    UploadSuccessResponse uploadGrowingVodFile(File file, TailFollowParams tailParams, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException;
+
+    /**
+     * 在后台开始分片上传视频文件，立即返回上传句柄，通过句柄暂停、恢复、取消上传或等待结果。
+     * 文件类型通过后缀名获取，上传在客户端的上传线程池中执行
+     *
+     * @param file 要上传的文件
+     * @param optionalParams 可选参数
+     * @return 上传句柄
+     * @throws QcloudSdkException 文件类型无法识别时抛出
+     * @throws FileNotFoundException 找不到指定的文件
+     */
+    UploadHandle startUploadVodFile(File file, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException;
+
+    /**
+     * 开始批量上传，返回后通过 {@link BatchUpload#submit(File)} 持续提交文件或目录，通过 {@link BatchUpload#next()} 逐个获取结果。
+     * <p>
+     * 各文件共用摘要调度器和上传请求调度器：可选参数未指定请求调度器时，按 maxConcurrentRequests 创建一个，
+     * 未指定单个文件的并发数时，单个文件最多可使用全部请求名额，多个文件同时上传时由调度器公平分配。
+     * 文件类型通过后缀名获取，可选参数对每个文件生效
+     *
+     * @param batchParams 批量上传参数，为null时使用默认值
+     * @param optionalParams 可选参数
+     * @return 批量上传
+     */
+    BatchUpload startBatchUpload(BatchUploadParams batchParams, UploadOptionalParams optionalParams);
+
+    /**
+     * 从数据流上传视频，读取数据流直到结束，不负责关闭数据流。
+     * <p>
+     * 初始化上传需要预先知道SHA和大小，数据流会先被完整读取并计算摘要：
+     * 不超过 {@link UploadOptionalParams#getStreamMemoryThreshold()} 的数据保存在内存中，超出部分转存到临时文件，上传结束后删除
+     *
+     * @param in 视频数据流
+     * @param fileName 视频文件名称，不含后缀
+     * @param fileType 文件类型，如mp4,flv等
+     * @param optionalParams 可选参数
+     * @throws QcloudSdkException 上传失败时抛出
+     * @throws IOException 读取数据流失败时抛出
+     */
+    UploadSuccessResponse uploadVodStream(InputStream in, String fileName, String fileType, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException;
+
+    /**
+     * 从数据通道上传视频，读取通道直到结束，不负责关闭通道
+     *
+     * @param channel 视频数据通道
+     * @param fileName 视频文件名称，不含后缀
+     * @param fileType 文件类型，如mp4,flv等
+     * @param optionalParams 可选参数
+     * @throws QcloudSdkException 上传失败时抛出
+     * @throws IOException 读取数据失败时抛出
+     * @see #uploadVodStream(InputStream, String, String, UploadOptionalParams)
+     */
+    UploadSuccessResponse uploadVodStream(ReadableByteChannel channel, String fileName, String fileType, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException;
+
     /**
      * 通过用户传递的URL和配置，自动从已有的资源库批量拉去视频文件到腾讯云
      *
@@ -135,6 +229,20 @@ public interface IVodUpload {
      */
     void multiPullVodFile(List<MultiPullParams> pullList) throws QcloudSdkException;
 
+    /**
+     * 批量拉取上传，将拉取列表按 chunkSize 分组后并发提交，每组独立签名，返回每个URL的提交结果。
+     * <p>
+     * 某组失败不影响其他组，该组中的URL以未接受返回。只有服务端明确返回可重试时才重新提交该组；
+     * 网络失败时请求可能已被服务端接受，因此不自动重新提交，由调用方确认后自行处理，避免重复拉取。
+     * 服务端返回中找不到对应任务的URL同样以未接受返回
+     *
+     * @param pullList 拉取文件配置列表
+     * @param bulkParams 分组提交参数，为null时使用默认值
+     * @return 与 pullList 顺序一致的提交结果
+     * @throws QcloudSdkException 拉取列表为空时抛出
+     */
+    List<MultiPullResult> bulkPullVodFile(List<MultiPullParams> pullList, BulkPullParams bulkParams) throws QcloudSdkException;
+
     /**
      * 文件上传初始化，可选参数集
      */
@@ -145,6 +253,71 @@ public interface IVodUpload {
         private Boolean isScreenshot;
         private Boolean isWatermark;
         private Long storeTime;
+        /** 同时上传的分片数，默认为1，即串行上传 */
+        private Integer concurrency;
+        /**
+         * 分片请求在客户端自身的网络重试全部失败后，整片重新发送的次数，默认1。
+         * 与客户端配置的重试次数相互独立，避免两层重试次数相乘
+         */
+        private Integer partRetries;
+        /** 分片大小选择策略，为空时使用客户端默认的自适应策略 */
+        private PartSizePolicy partSizePolicy;
+        /** 流式上传时在内存中暂存的最大字节数，超出后转存到临时文件，默认8MB */
+        private Integer streamMemoryThreshold;
+        /** 本地断点日志目录，设置后上传进度会持久化，进程重启后可直接续传，仅对文件上传有效 */
+        private File checkpointDir;
+        /** 文件SHA缓存，文件未变化时跳过SHA计算，仅对文件上传有效 */
+        private Sha1Cache sha1Cache;
+        /**
+         * 小文件阈值，单位字节，不超过该大小的文件通过 smallFileUpload 一次请求上传，为空时不启用。
+         * 小文件上传接口不支持分类、标签、转码等初始化参数
+         */
+        private Long smallFileThreshold;
+        /** 计算文件摘要时单次读取的字节数，默认1MB，仅对文件上传有效 */
+        private Integer hashBufferSize;
+        /** 文件摘要调度器，为空时使用客户端共享的调度器，每块磁盘同时只计算一个文件，仅对文件上传有效 */
+        private HashScheduler hashScheduler;
+        /** 本次上传的限速器，与客户端限速器同时生效，持有该实例即可在上传过程中调整速率 */
+        private TokenBucketRateLimiter rateLimiter;
+        /** 上传进度监听器，回调在上传线程中执行，必须尽快返回 */
+        private UploadProgressListener progressListener;
+        /** 慢分片推测重发策略，为空时不启用，仅在并发数大于1时生效 */
+        private SpeculativeResendPolicy speculativeResend;
+        /** 上传请求调度器，多个上传共用同一实例时限制初始化和分片请求的总并发，并在上传之间公平分配 */
+        private PartScheduler partScheduler;
+        /** 去重索引，上传前按文件SHA-1查询，命中时不发起任何请求；每次上传成功后写入 */
+        private DedupeStore dedupeStore;
+
+        public UploadOptionalParams() {
+        }
+
+        /**
+         * 复制另一组可选参数，标签列表单独复制，其余对象共享
+         *
+         * @param other 被复制的参数
+         */
+        public UploadOptionalParams(UploadOptionalParams other) {
+            this.tags = new ArrayList<>(other.tags);
+            this.classId = other.classId;
+            this.isTranscode = other.isTranscode;
+            this.isScreenshot = other.isScreenshot;
+            this.isWatermark = other.isWatermark;
+            this.storeTime = other.storeTime;
+            this.concurrency = other.concurrency;
+            this.partRetries = other.partRetries;
+            this.partSizePolicy = other.partSizePolicy;
+            this.streamMemoryThreshold = other.streamMemoryThreshold;
+            this.checkpointDir = other.checkpointDir;
+            this.sha1Cache = other.sha1Cache;
+            this.smallFileThreshold = other.smallFileThreshold;
+            this.hashBufferSize = other.hashBufferSize;
+            this.hashScheduler = other.hashScheduler;
+            this.rateLimiter = other.rateLimiter;
+            this.progressListener = other.progressListener;
+            this.speculativeResend = other.speculativeResend;
+            this.partScheduler = other.partScheduler;
+            this.dedupeStore = other.dedupeStore;
+        }
 
         public List<String> getTags() {
             return tags;
@@ -197,6 +370,245 @@ public interface IVodUpload {
         public void setStoreTime(Long storeTime) {
             this.storeTime = storeTime;
         }
+
+        public Integer getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(Integer concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public Integer getPartRetries() {
+            return partRetries;
+        }
+
+        public void setPartRetries(Integer partRetries) {
+            this.partRetries = partRetries;
+        }
+
+        public PartSizePolicy getPartSizePolicy() {
+            return partSizePolicy;
+        }
+
+        public void setPartSizePolicy(PartSizePolicy partSizePolicy) {
+            this.partSizePolicy = partSizePolicy;
+        }
+
+        public Integer getStreamMemoryThreshold() {
+            return streamMemoryThreshold;
+        }
+
+        public void setStreamMemoryThreshold(Integer streamMemoryThreshold) {
+            this.streamMemoryThreshold = streamMemoryThreshold;
+        }
+
+        public File getCheckpointDir() {
+            return checkpointDir;
+        }
+
+        public void setCheckpointDir(File checkpointDir) {
+            this.checkpointDir = checkpointDir;
+        }
+
+        public Sha1Cache getSha1Cache() {
+            return sha1Cache;
+        }
+
+        public void setSha1Cache(Sha1Cache sha1Cache) {
+            this.sha1Cache = sha1Cache;
+        }
+
+        public Long getSmallFileThreshold() {
+            return smallFileThreshold;
+        }
+
+        public void setSmallFileThreshold(Long smallFileThreshold) {
+            this.smallFileThreshold = smallFileThreshold;
+        }
+
+        public Integer getHashBufferSize() {
+            return hashBufferSize;
+        }
+
+        public void setHashBufferSize(Integer hashBufferSize) {
+            this.hashBufferSize = hashBufferSize;
+        }
+
+        public HashScheduler getHashScheduler() {
+            return hashScheduler;
+        }
+
+        public void setHashScheduler(HashScheduler hashScheduler) {
+            this.hashScheduler = hashScheduler;
+        }
+
+        public TokenBucketRateLimiter getRateLimiter() {
+            return rateLimiter;
+        }
+
+        public void setRateLimiter(TokenBucketRateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+        }
+
+        public UploadProgressListener getProgressListener() {
+            return progressListener;
+        }
+
+        public void setProgressListener(UploadProgressListener progressListener) {
+            this.progressListener = progressListener;
+        }
+
+        public SpeculativeResendPolicy getSpeculativeResend() {
+            return speculativeResend;
+        }
+
+        public void setSpeculativeResend(SpeculativeResendPolicy speculativeResend) {
+            this.speculativeResend = speculativeResend;
+        }
+
+        public PartScheduler getPartScheduler() {
+            return partScheduler;
+        }
+
+        public void setPartScheduler(PartScheduler partScheduler) {
+            this.partScheduler = partScheduler;
+        }
+
+        public DedupeStore getDedupeStore() {
+            return dedupeStore;
+        }
+
+        public void setDedupeStore(DedupeStore dedupeStore) {
+            this.dedupeStore = dedupeStore;
+        }
+    }
+
+    /**
+     * 批量上传参数
+     */
+    class BatchUploadParams {
+        /** 默认同时上传的文件数 */
+        private static final int DEFAULT_MAX_CONCURRENT_FILES = 4;
+        /** 默认同时执行的上传请求数 */
+        private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
+        /** 同时上传的最大文件数，包括正在计算摘要的文件 */
+        private int maxConcurrentFiles = DEFAULT_MAX_CONCURRENT_FILES;
+        /** 全部文件同时执行的最大初始化及分片请求数，可选参数中已指定调度器时以调度器为准 */
+        private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+        /** 提交目录时筛选文件，为空时上传目录下全部文件 */
+        private FileFilter fileFilter;
+
+        public int getMaxConcurrentFiles() {
+            return maxConcurrentFiles;
+        }
+
+        public void setMaxConcurrentFiles(int maxConcurrentFiles) {
+            this.maxConcurrentFiles = maxConcurrentFiles;
+        }
+
+        public int getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        public FileFilter getFileFilter() {
+            return fileFilter;
+        }
+
+        public void setFileFilter(FileFilter fileFilter) {
+            this.fileFilter = fileFilter;
+        }
+    }
+
+    /**
+     * 跟随写入中的文件上传时的参数
+     */
+    class TailFollowParams {
+        /** 默认的检查文件增长间隔，单位毫秒 */
+        private static final long DEFAULT_POLL_INTERVAL = 500;
+        /** 默认的空闲超时，单位毫秒 */
+        private static final long DEFAULT_IDLE_TIMEOUT = 10 * 1000;
+
+        /** 检查文件增长的间隔，单位毫秒 */
+        private long pollInterval = DEFAULT_POLL_INTERVAL;
+        /** 文件超过该时长不再增长时视为写入结束，单位毫秒，小于等于0时只等待 markWriterClosed */
+        private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+        private volatile boolean writerClosed;
+
+        public long getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(long pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public long getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(long idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public boolean isWriterClosed() {
+            return writerClosed;
+        }
+
+        /**
+         * 通知写入已结束，可由写入方在关闭文件后从任意线程调用
+         */
+        public void markWriterClosed() {
+            this.writerClosed = true;
+        }
+    }
+
+    /**
+     * 批量拉取上传的分组提交参数
+     */
+    class BulkPullParams {
+        /** 默认每组URL数 */
+        private static final int DEFAULT_CHUNK_SIZE = 20;
+        /** 默认同时提交的组数 */
+        private static final int DEFAULT_CONCURRENCY = 4;
+        /** 默认重试间隔，单位毫秒 */
+        private static final long DEFAULT_RETRY_INTERVAL = 1000;
+
+        /** 每次请求提交的URL数 */
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+        /** 同时提交的请求数 */
+        private int concurrency = DEFAULT_CONCURRENCY;
+        /** 服务端返回可重试时，第n次重试前等待 n * retryInterval 毫秒，重试次数与客户端配置一致 */
+        private long retryInterval = DEFAULT_RETRY_INTERVAL;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public long getRetryInterval() {
+            return retryInterval;
+        }
+
+        public void setRetryInterval(long retryInterval) {
+            this.retryInterval = retryInterval;
+        }
     }
 
     enum MultiPullPriority {
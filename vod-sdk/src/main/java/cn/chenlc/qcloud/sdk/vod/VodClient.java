@@ -25,6 +25,8 @@ import cn.chenlc.qcloud.sdk.vod.operators.VodClassOperator;
 import cn.chenlc.qcloud.sdk.vod.operators.VodManagerOperator;
 import cn.chenlc.qcloud.sdk.vod.operators.VodUploadOperator;
 import cn.chenlc.qcloud.sdk.vod.sign.Sign;
+import cn.chenlc.qcloud.sdk.vod.upload.BatchUpload;
+import cn.chenlc.qcloud.sdk.vod.upload.UploadHandle;
 import cn.chenlc.qcloud.sdk.vod.vo.*;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONArray;
@@ -34,6 +36,9 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -182,11 +187,46 @@ public class VodClient implements IVodClassManager, IVod1_0Compatibility, IVodMa
         return vodUploader.uploadVodFile(file, fileType, optionalParams);
     }
 
+    @Override
+    public UploadSuccessResponse uploadVodFile(Path path, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException {
+        return vodUploader.uploadVodFile(path, optionalParams);
+    }
+
+    @Override
+    public UploadSuccessResponse uploadGrowingVodFile(File file, TailFollowParams tailParams, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException {
+        return vodUploader.uploadGrowingVodFile(file, tailParams, optionalParams);
+    }
+
+    @Override
+    public UploadHandle startUploadVodFile(File file, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException {
+        return vodUploader.startUploadVodFile(file, optionalParams);
+    }
+
+    @Override
+    public BatchUpload startBatchUpload(BatchUploadParams batchParams, UploadOptionalParams optionalParams) {
+        return vodUploader.startBatchUpload(batchParams, optionalParams);
+    }
+
+    @Override
+    public UploadSuccessResponse uploadVodStream(InputStream in, String fileName, String fileType, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException {
+        return vodUploader.uploadVodStream(in, fileName, fileType, optionalParams);
+    }
+
+    @Override
+    public UploadSuccessResponse uploadVodStream(ReadableByteChannel channel, String fileName, String fileType, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException {
+        return vodUploader.uploadVodStream(channel, fileName, fileType, optionalParams);
+    }
+
     @Override
     public void multiPullVodFile(List<MultiPullParams> pullList) throws QcloudSdkException {
         vodUploader.multiPullVodFile(pullList);
     }
 
+    @Override
+    public List<MultiPullResult> bulkPullVodFile(List<MultiPullParams> pullList, BulkPullParams bulkParams) throws QcloudSdkException {
+        return vodUploader.bulkPullVodFile(pullList, bulkParams);
+    }
+
     private static final class DESCRIBE_RECORD_PLAY_INFO {
         private static final String ACTION = "DescribeRecordPlayInfo";
         private static final String INPUT_VID = "vid";
@@ -17,36 +17,81 @@
 package cn.chenlc.qcloud.sdk.vod.operators;
 
 import cn.chenlc.qcloud.sdk.common.consts.Region;
+import cn.chenlc.qcloud.sdk.common.exceptions.CancelledException;
 import cn.chenlc.qcloud.sdk.common.exceptions.ParamException;
 import cn.chenlc.qcloud.sdk.common.exceptions.QcloudSdkException;
 import cn.chenlc.qcloud.sdk.common.exceptions.ServerException;
+import cn.chenlc.qcloud.sdk.common.http.ByteBudget;
+import cn.chenlc.qcloud.sdk.common.http.DirectBufferPool;
 import cn.chenlc.qcloud.sdk.common.http.HttpMethod;
 import cn.chenlc.qcloud.sdk.common.http.HttpRequest;
 import cn.chenlc.qcloud.sdk.common.http.QcloudHttpClient;
+import cn.chenlc.qcloud.sdk.common.http.RequestCanceller;
+import cn.chenlc.qcloud.sdk.common.http.ThrottledEntity;
+import cn.chenlc.qcloud.sdk.common.http.TokenBucketRateLimiter;
 import cn.chenlc.qcloud.sdk.common.sign.Credential;
 import cn.chenlc.qcloud.sdk.vod.IVodUpload;
 import cn.chenlc.qcloud.sdk.vod.ParamKeys;
 import cn.chenlc.qcloud.sdk.vod.VodConstants;
 import cn.chenlc.qcloud.sdk.vod.sign.Sign;
+import cn.chenlc.qcloud.sdk.vod.upload.AdaptivePartSizePolicy;
+import cn.chenlc.qcloud.sdk.vod.upload.BatchUpload;
+import cn.chenlc.qcloud.sdk.vod.upload.FileChannelPartSource;
+import cn.chenlc.qcloud.sdk.vod.upload.FileDigest;
+import cn.chenlc.qcloud.sdk.vod.upload.FilePart;
+import cn.chenlc.qcloud.sdk.vod.upload.GrowingFileDigester;
+import cn.chenlc.qcloud.sdk.vod.upload.HashScheduler;
+import cn.chenlc.qcloud.sdk.vod.upload.ParallelPartUploader;
+import cn.chenlc.qcloud.sdk.vod.upload.PartScheduler;
+import cn.chenlc.qcloud.sdk.vod.upload.PartSizePolicy;
+import cn.chenlc.qcloud.sdk.vod.upload.PartSource;
+import cn.chenlc.qcloud.sdk.vod.upload.PartVerifier;
+import cn.chenlc.qcloud.sdk.vod.upload.ReadAheadFileReader;
+import cn.chenlc.qcloud.sdk.vod.upload.ResumePlanner;
+import cn.chenlc.qcloud.sdk.vod.upload.Sha1Cache;
+import cn.chenlc.qcloud.sdk.vod.upload.SpooledPartSource;
+import cn.chenlc.qcloud.sdk.vod.upload.UploadCheckpointJournal;
+import cn.chenlc.qcloud.sdk.vod.upload.UploadCheckpointJournal.Checkpoint;
+import cn.chenlc.qcloud.sdk.vod.upload.UploadHandle;
+import cn.chenlc.qcloud.sdk.vod.upload.UploadProgressListener;
+import cn.chenlc.qcloud.sdk.vod.upload.UploadProgressTracker;
+import cn.chenlc.qcloud.sdk.vod.vo.MultiPullResult;
 import cn.chenlc.qcloud.sdk.vod.vo.UploadInitResponse;
 import cn.chenlc.qcloud.sdk.vod.vo.UploadSuccessResponse;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 视频文件上传操作实现
@@ -113,17 +158,42 @@ public class VodUploadOperator extends AbstractOperator implements IVodUpload {
         private static final String INPUT_PREFIX = "pullset";
         private static final String INPUT_FILE_MD5 = "fileMd5";
         private static final String INPUT_PRIORITY = "priority";
+
+        private static final String OUTPUT_SOURCE_URL = "source_url";
+        private static final String OUTPUT_TASK_ID = "vod_task_id";
     }
 
-    /** 默认分片大小 */
-    private static final int DEFAULT_DATA_SIZE = 524288;
-//    private static final int DEFAULT_DATA_SIZE = 1048576;
+    /** 流式上传时，默认在内存中暂存的最大字节数 */
+    private static final int DEFAULT_STREAM_MEMORY_THRESHOLD = 8 * 1024 * 1024;
+
+    /** 流式上传暂存缓冲区池中最多保留的空闲缓冲区个数 */
+    private static final int STAGING_POOL_SIZE = 32;
+
+    /** 分片在客户端网络重试全部失败后整片重发的默认次数 */
+    private static final int DEFAULT_PART_RETRIES = 1;
 
     private Region region;
 
+    /** 默认的分片大小策略，在同一客户端的所有上传间共享吞吐量统计 */
+    private final PartSizePolicy defaultPartSizePolicy = new AdaptivePartSizePolicy();
+
+    /** 默认的文件摘要调度器，同一客户端的并发上传在每块磁盘上依次计算摘要 */
+    private final HashScheduler defaultHashScheduler = new HashScheduler();
+
+    /** 客户端内所有上传共享的在途数据预算，未配置时为null */
+    private final ByteBudget inflightBudget;
+
+    /** 流式上传暂存数据的直接缓冲区池，同一客户端的所有流式上传共享 */
+    private final DirectBufferPool stagingPool = new DirectBufferPool((int) PartSizePolicy.MAX_PART_SIZE, STAGING_POOL_SIZE);
+
+    /** 分片并发上传线程池，首次上传时创建 */
+    private volatile ExecutorService partExecutor;
+
     public VodUploadOperator(Credential credential, QcloudHttpClient httpClient) {
         super(credential, httpClient);
         this.region = httpClient.getClientConfig().getRegion();
+        long maxInflightBytes = httpClient.getClientConfig().getMaxInflightBytes();
+        this.inflightBudget = maxInflightBytes > 0 ? new ByteBudget(maxInflightBytes) : null;
     }
 
     @Override
@@ -226,6 +296,25 @@ public class VodUploadOperator extends AbstractOperator implements IVodUpload {
 
     @Override
     public void uploadPart(String fileSha, long offset, long dataSize, String dataMd5, byte[] data) throws QcloudSdkException {
+        uploadPart(fileSha, offset, dataSize, dataMd5, new ByteArrayEntity(data));
+    }
+
+    /**
+     * 视频分片上传，分片数据以 HttpEntity 形式提供，实体必须可重复发送以支持重试
+     *
+     * @param fileSha 整个文件的SHA
+     * @param offset 分片在文件中的相对偏移
+     * @param dataSize 分片大小
+     * @param dataMd5 该分片所上传数据的MD5
+     * @param data 视频分片数据
+     * @throws QcloudSdkException 上传失败时抛出
+     */
+    public void uploadPart(String fileSha, long offset, long dataSize, String dataMd5, HttpEntity data) throws QcloudSdkException {
+        uploadPart(fileSha, offset, dataSize, dataMd5, data, null);
+    }
+
+    private void uploadPart(String fileSha, long offset, long dataSize, String dataMd5, HttpEntity data,
+                            RequestCanceller canceller) throws QcloudSdkException {
         LOGGER.debug("分片上传，fileSha: [{}], offset: [{}] ...", fileSha, offset);
         Map<String, String> params = genCommonParams(UPLOAD_PART.ACTION, region);
         params.put(COMMON_KEYS.FILE_SHA, fileSha);
@@ -239,7 +328,8 @@ public class VodUploadOperator extends AbstractOperator implements IVodUpload {
         request.setUrl(VodConstants.UPLOAD_REQUEST_URL)
                 .setMethod(HttpMethod.POST)
                 .setQueryParams(params)
-                .setBody(new ByteArrayEntity(data));
+                .setBody(ThrottledEntity.wrap(data, httpClient.getClientConfig().getUploadRateLimiter()));
+        request.setCanceller(canceller);
 
         int retry = 0;
         int maxRetries = httpClient.getClientConfig().getMaxRetries();
@@ -299,6 +389,12 @@ public class VodUploadOperator extends AbstractOperator implements IVodUpload {
 
     @Override
     public UploadSuccessResponse smallFileUpload(String fileName, String fileSha, long fileSize, String fileType, String vodFileId, byte[] data) throws QcloudSdkException {
+        return smallFileUpload(fileName, fileSha, fileSize, fileType, vodFileId, new ByteArrayEntity(data), null);
+    }
+
+    private UploadSuccessResponse smallFileUpload(String fileName, String fileSha, long fileSize, String fileType,
+                                                  String vodFileId, HttpEntity data, RequestCanceller canceller)
+            throws QcloudSdkException {
         Map<String, String> params = genCommonParams(SMALL_FILE_UPLOAD.ACTION, region);
         params.put(COMMON_KEYS.FILE_NAME, fileName);
         params.put(COMMON_KEYS.FILE_SHA, fileSha);
@@ -315,7 +411,9 @@ public class VodUploadOperator extends AbstractOperator implements IVodUpload {
         HttpRequest request = new HttpRequest();
         request.setUrl(VodConstants.UPLOAD_REQUEST_URL)
                 .setMethod(HttpMethod.POST)
-                .setBody(new ByteArrayEntity(data));
+                .setQueryParams(params)
+                .setBody(ThrottledEntity.wrap(data, httpClient.getClientConfig().getUploadRateLimiter()));
+        request.setCanceller(canceller);
 
         int retry = 0;
         int maxRetries = httpClient.getClientConfig().getMaxRetries();
@@ -349,6 +447,52 @@ public class VodUploadOperator extends AbstractOperator implements IVodUpload {
 
     @Override
     public UploadSuccessResponse uploadVodFile(File file, UploadOptionalParams optionalParams) throws QcloudSdkException, IOException {
+        return uploadVodFile(file, getFileSuffix(file), optionalParams);
+    }
+
+    @Override
+    public UploadSuccessResponse uploadVodFile(File file, String fileType, UploadOptionalParams optionalParams) throws QcloudSdkException, IOException {
+        return uploadVodFile(file, fileType, optionalParams, new UploadHandle());
+    }
+
+    @Override
+    public UploadHandle startUploadVodFile(final File file, final UploadOptionalParams optionalParams) throws IOException, QcloudSdkException {
+        final String fileType = getFileSuffix(file);
+        final UploadHandle handle = new UploadHandle();
+        partExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    handle.complete(uploadVodFile(file, fileType, optionalParams, handle));
+                } catch (QcloudSdkException | IOException | RuntimeException e) {
+                    LOGGER.debug("后台上传结束：{}", file, e);
+                    handle.fail(e);
+                }
+            }
+        });
+        return handle;
+    }
+
+    @Override
+    public BatchUpload startBatchUpload(BatchUploadParams batchParams, UploadOptionalParams optionalParams) {
+        BatchUploadParams bp = batchParams == null ? new BatchUploadParams() : batchParams;
+        final UploadOptionalParams ops = optionalParams == null
+                ? new UploadOptionalParams() : new UploadOptionalParams(optionalParams);
+        if (ops.getPartScheduler() == null) {
+            ops.setPartScheduler(new PartScheduler(bp.getMaxConcurrentRequests()));
+        }
+        if (ops.getConcurrency() == null) {
+            ops.setConcurrency(ops.getPartScheduler().getMaxConcurrent());
+        }
+        return new BatchUpload(new BatchUpload.FileUploader() {
+            @Override
+            public UploadSuccessResponse upload(File file, UploadHandle handle) throws QcloudSdkException, IOException {
+                return uploadVodFile(file, getFileSuffix(file), ops, handle);
+            }
+        }, partExecutor(), bp.getMaxConcurrentFiles(), bp.getFileFilter());
+    }
+
+    private String getFileSuffix(File file) throws QcloudSdkException, IOException {
         if (file == null || !file.exists()) {
             throw new FileNotFoundException(file == null ? "" : file.getAbsolutePath());
         }
@@ -360,12 +504,11 @@ public class VodUploadOperator extends AbstractOperator implements IVodUpload {
         if (suffixIndex == 0) {
             throw new ParamException("无法识别文件类型，请确保文件名有后缀名。");
         }
-        String suffix = fileName.substring(suffixIndex);
-        return uploadVodFile(file, suffix, optionalParams);
+        return fileName.substring(suffixIndex);
     }
 
-    @Override
-    public UploadSuccessResponse uploadVodFile(File file, String fileType, UploadOptionalParams optionalParams) throws QcloudSdkException, IOException {
+    private UploadSuccessResponse uploadVodFile(File file, String fileType, UploadOptionalParams optionalParams,
+                                                UploadHandle handle) throws QcloudSdkException, IOException {
         if (file == null || !file.exists()) {
             throw new FileNotFoundException(file == null ? "" : file.getAbsolutePath());
         }
@@ -374,87 +517,477 @@ public class VodUploadOperator extends AbstractOperator implements IVodUpload {
         }
 
         String fileName = file.getName().substring(0, file.getName().length() - fileType.length() - 1);
-        String fileSha = calcSha1(file);
-        long fileSize = file.length();
 
-        // 上传初始化
-        UploadInitResponse initResponse = initUpload(fileName, fileSha, fileSize, DEFAULT_DATA_SIZE, fileType, optionalParams);
+        UploadProgressTracker tracker = new UploadProgressTracker(progressListener(optionalParams));
+
+        // 小文件一次请求上传
+        if (isSmallFile(file.length(), optionalParams)) {
+            // 暂停时在占用预算之前等待
+            handle.awaitRunnable();
+            long reserved = acquireInflight(file.length());
+            try {
+                byte[] data = Files.readAllBytes(file.toPath());
+                return smallFileUpload(fileName, DigestUtils.sha1Hex(data), fileType, data, tracker, handle,
+                        optionalParams);
+            } finally {
+                releaseInflight(reserved);
+            }
+        }
+
+        // 存在本地断点时直接使用记录的摘要，无需重新读取文件
+        UploadCheckpointJournal journal = optionalParams == null || optionalParams.getCheckpointDir() == null
+                ? null : new UploadCheckpointJournal(optionalParams.getCheckpointDir());
+        Checkpoint checkpoint = journal == null ? null : journal.load(file);
+        FileDigest digest;
+        if (checkpoint != null) {
+            LOGGER.debug("从本地断点恢复上传：{}", checkpoint);
+            digest = checkpoint.getDigest();
+        } else {
+            long dataSize = partSizePolicy(optionalParams).choosePartSize(file.length());
+            Sha1Cache sha1Cache = optionalParams == null ? null : optionalParams.getSha1Cache();
+            String cachedSha = sha1Cache == null ? null : sha1Cache.get(file);
+            if (cachedSha != null) {
+                // 文件未变化，跳过摘要计算，分片MD5在上传时计算
+                LOGGER.debug("命中SHA缓存：{} -> {}", file, cachedSha);
+                digest = new FileDigest(cachedSha, file.length(), dataSize, FilePart.split(file.length(), dataSize));
+            } else {
+                // 一次顺序预读，同时得到文件SHA和各分片MD5；同一磁盘上的文件排队计算
+                Sha1Cache.Entry identity = sha1Cache == null ? null : sha1Cache.identify(file);
+                digest = hashScheduler(optionalParams).compute(file, dataSize, hashReader(optionalParams), tracker);
+                if (sha1Cache != null) {
+                    sha1Cache.put(file, digest.getFileSha(), identity);
+                }
+            }
+            if (journal != null) {
+                checkpoint = journal.create(file, digest);
+            }
+        }
+        return uploadFileDigested(file, fileName, fileType, digest, checkpoint, tracker, handle, optionalParams);
+    }
+
+    @Override
+    public UploadSuccessResponse uploadGrowingVodFile(File file, TailFollowParams tailParams, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException {
+        String fileType = getFileSuffix(file);
+        String fileName = file.getName().substring(0, file.getName().length() - fileType.length() - 1);
+        TailFollowParams params = tailParams == null ? new TailFollowParams() : tailParams;
+        UploadProgressTracker tracker = new UploadProgressTracker(progressListener(optionalParams));
+
+        // 最终大小未知，按大文件选择分片大小
+        long dataSize = partSizePolicy(optionalParams).choosePartSize(Long.MAX_VALUE);
+        FileDigest digest;
+        try (GrowingFileDigester digester = new GrowingFileDigester(file, dataSize)) {
+            long lastGrowth = System.currentTimeMillis();
+            while (!params.isWriterClosed()) {
+                if (digester.poll() > 0) {
+                    lastGrowth = System.currentTimeMillis();
+                    tracker.hashProgress(digester.size(), -1);
+                } else if (params.getIdleTimeout() > 0
+                        && System.currentTimeMillis() - lastGrowth >= params.getIdleTimeout()) {
+                    LOGGER.debug("文件 [{}] 超过 [{}] 毫秒未增长，视为写入结束", file, params.getIdleTimeout());
+                    break;
+                }
+                try {
+                    Thread.sleep(Math.max(1, params.getPollInterval()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Following file interrupted.");
+                }
+            }
+            digest = digester.finish();
+        }
+        if (file.length() != digest.getFileSize()) {
+            throw new IOException("File changed after writer closed: " + file);
+        }
+        LOGGER.debug("文件 [{}] 写入结束，大小 [{}]，开始上传", file, digest.getFileSize());
+
+        Checkpoint checkpoint = optionalParams == null || optionalParams.getCheckpointDir() == null
+                ? null : new UploadCheckpointJournal(optionalParams.getCheckpointDir()).create(file, digest);
+        return uploadFileDigested(file, fileName, fileType, digest, checkpoint, tracker, new UploadHandle(),
+                optionalParams);
+    }
+
+    /**
+     * 摘要已计算完成后上传本地文件，上传成功后删除断点日志
+     */
+    private UploadSuccessResponse uploadFileDigested(File file, String fileName, String fileType, FileDigest digest,
+                                                     Checkpoint checkpoint, UploadProgressTracker tracker,
+                                                     UploadHandle handle, UploadOptionalParams optionalParams)
+            throws QcloudSdkException, IOException {
+        try (PartSource source = new FileChannelPartSource(file)) {
+            UploadSuccessResponse response = uploadDigested(fileName, fileType, digest, source, checkpoint, tracker,
+                    handle, optionalParams);
+            if (checkpoint != null) {
+                checkpoint.complete();
+            }
+            return response;
+        } finally {
+            if (checkpoint != null) {
+                checkpoint.close();
+            }
+        }
+    }
+
+    @Override
+    public UploadSuccessResponse uploadVodFile(Path path, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException {
+        if (path == null) {
+            throw new FileNotFoundException("");
+        }
+        return uploadVodFile(path.toFile(), optionalParams);
+    }
+
+    @Override
+    public UploadSuccessResponse uploadVodStream(InputStream in, String fileName, String fileType, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException {
+        if (in == null) {
+            throw new ParamException("input stream is null");
+        }
+        if (StringUtils.isBlank(fileName) || StringUtils.isBlank(fileType)) {
+            throw new ParamException("fileName and fileType can not be empty");
+        }
+        // 流长度未知，按大文件选择分片大小
+        long dataSize = partSizePolicy(optionalParams).choosePartSize(Long.MAX_VALUE);
+        int memoryThreshold = optionalParams == null || optionalParams.getStreamMemoryThreshold() == null
+                ? DEFAULT_STREAM_MEMORY_THRESHOLD : optionalParams.getStreamMemoryThreshold();
+
+        // 先按内存阈值占用预算，暂存完成后只保留实际驻留内存的部分
+        long reserved = acquireInflight(memoryThreshold);
+        try (SpooledPartSource source = SpooledPartSource.spool(in, dataSize, memoryThreshold, stagingPool)) {
+            long retained = source.isInMemory() ? Math.min(reserved, source.size()) : 0;
+            releaseInflight(reserved - retained);
+            reserved = retained;
+
+            FileDigest digest = source.getDigest();
+            UploadProgressTracker tracker = new UploadProgressTracker(progressListener(optionalParams));
+            if (isSmallFile(digest.getFileSize(), optionalParams)) {
+                byte[] data = EntityUtils.toByteArray(source.entity(0, digest.getFileSize()));
+                return smallFileUpload(fileName, digest.getFileSha(), fileType, data, tracker, new UploadHandle(),
+                        optionalParams);
+            }
+            return uploadDigested(fileName, fileType, source.getDigest(), source, null, tracker, new UploadHandle(),
+                    optionalParams);
+        } finally {
+            releaseInflight(reserved);
+        }
+    }
+
+    @Override
+    public UploadSuccessResponse uploadVodStream(ReadableByteChannel channel, String fileName, String fileType, UploadOptionalParams optionalParams) throws IOException, QcloudSdkException {
+        if (channel == null) {
+            throw new ParamException("channel is null");
+        }
+        return uploadVodStream(Channels.newInputStream(channel), fileName, fileType, optionalParams);
+    }
+
+    /**
+     * 小文件一次请求上传，应用本次上传的限速器并报告进度；暂停时在获取调度器名额前等待，取消时中止请求
+     */
+    private UploadSuccessResponse smallFileUpload(String fileName, String fileSha, String fileType, byte[] data,
+                                                  UploadProgressTracker tracker, UploadHandle handle,
+                                                  UploadOptionalParams optionalParams)
+            throws QcloudSdkException, IOException {
+        UploadSuccessResponse uploaded = findUploaded(fileSha, optionalParams);
+        if (uploaded != null) {
+            tracker.start(data.length, 1, data.length, 1);
+            tracker.completed(uploaded);
+            return uploaded;
+        }
+        tracker.start(data.length, 1, 0, 0);
+        HttpEntity body = tracker.track(ThrottledEntity.wrap(new ByteArrayEntity(data), rateLimiter(optionalParams)));
+        PartScheduler scheduler = partScheduler(optionalParams);
+        try {
+            handle.awaitRunnable();
+            acquireSlot(scheduler, fileSha);
+            UploadSuccessResponse response;
+            try {
+                response = smallFileUpload(fileName, fileSha, data.length, fileType, null, body,
+                        handle.getCanceller());
+            } finally {
+                releaseSlot(scheduler, fileSha);
+            }
+            rememberUploaded(fileSha, response, optionalParams);
+            tracker.completed(response);
+            return response;
+        } catch (QcloudSdkException | IOException | RuntimeException e) {
+            tracker.failed(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 摘要已计算完成后的上传流程：初始化、分片上传、结束上传。checkpoint不为空时，记录每个已确认的分片
+     */
+    private UploadSuccessResponse uploadDigested(String fileName, String fileType, FileDigest digest,
+                                                 PartSource source, Checkpoint checkpoint,
+                                                 UploadProgressTracker tracker, UploadHandle handle,
+                                                 UploadOptionalParams optionalParams)
+            throws QcloudSdkException, IOException {
+        try {
+            UploadSuccessResponse response = findUploaded(digest.getFileSha(), optionalParams);
+            if (response != null) {
+                int parts = digest.getParts().size();
+                tracker.start(digest.getFileSize(), parts, digest.getFileSize(), parts);
+            } else {
+                response = initAndUploadParts(fileName, fileType, digest, source, checkpoint, tracker, handle,
+                        optionalParams);
+                rememberUploaded(digest.getFileSha(), response, optionalParams);
+            }
+            tracker.completed(response);
+            return response;
+        } catch (QcloudSdkException | IOException | RuntimeException e) {
+            tracker.failed(e);
+            throw e;
+        }
+    }
+
+    private UploadSuccessResponse initAndUploadParts(String fileName, String fileType, FileDigest digest,
+                                                     PartSource source, Checkpoint checkpoint,
+                                                     UploadProgressTracker tracker, UploadHandle handle,
+                                                     UploadOptionalParams optionalParams)
+            throws QcloudSdkException, IOException {
+        String fileSha = digest.getFileSha();
+        long fileSize = digest.getFileSize();
+        handle.awaitRunnable();
+
+        // 上传初始化，与分片请求共用调度器的名额
+        PartScheduler scheduler = partScheduler(optionalParams);
+        UploadInitResponse initResponse;
+        acquireSlot(scheduler, fileSha);
+        try {
+            initResponse = initUpload(fileName, fileSha, fileSize, digest.getDataSize(), fileType, optionalParams);
+        } finally {
+            releaseSlot(scheduler, fileSha);
+        }
         int returnCode = initResponse.getCode();
         if (returnCode < 0 || returnCode > 2) {
             LOGGER.debug("初始化文件上传失败：code = [{}], message = [{}]", returnCode, initResponse.getMessage());
             throw new ServerException(returnCode, initResponse.getMessage());
         }
 
-        // 开始分片上传
-        try (FileInputStream fin = new FileInputStream(file)) {
+        // 全新上传
+        if (returnCode == 0) {
+            // 服务端没有上传记录，本地记录的确认分片已失效
+            if (checkpoint != null) {
+                checkpoint.reset();
+            }
+            tracker.start(fileSize, digest.getParts().size(), 0, 0);
+            uploadParts(source, fileSha, digest.getParts(), checkpoint, tracker, handle, optionalParams);
+            handle.awaitRunnable();
+            return finishUpload(fileSha, scheduler);
+        }
 
-            if (returnCode == 0) {
-                // 全新上传
-                byte[] buffer = new byte[DEFAULT_DATA_SIZE];
-                int offset = 0;
-                //noinspection Duplicates
-                while (offset < fileSize) {
-                    int len = fin.read(buffer);
-                    if (len < DEFAULT_DATA_SIZE) {
-                        buffer = Arrays.copyOfRange(buffer, 0, len);
-                    }
-                    uploadPart(fileSha, offset, len, DigestUtils.md5Hex(buffer), buffer);
-                    offset += len;
-                }
-            } else if (returnCode == 1) {
-                // 断点续传
-                int curDataSize = (int)initResponse.getDataSize();
-                List<UploadInitResponse.PartInfo> uploadedParts = initResponse.getListParts();
-                Collections.sort(uploadedParts, new Comparator<UploadInitResponse.PartInfo>() {
-                    @Override
-                    public int compare(UploadInitResponse.PartInfo o1, UploadInitResponse.PartInfo o2) {
-                        return (int)(o1.getOffset() - o2.getOffset());
-                    }
-                });
-
-                byte[] buffer = new byte[curDataSize];
-                long offset = 0;
-                for (UploadInitResponse.PartInfo part : uploadedParts) {
-                    long partOffset = part.getOffset();
-                    long partDataSize = part.getDataSize();
-                    if (partDataSize != curDataSize && partOffset + partDataSize != fileSize) {
-                        throw new ParamException("Data size of part is wrong!");
-                    }
-                    while (offset < partOffset) {
-                        int len = fin.read(buffer);
-                        uploadPart(fileSha, offset, len, DigestUtils.md5Hex(buffer), buffer);
-                        offset += len;
-                    }
+        // 文件已存在
+        if (returnCode == 2) {
+            LOGGER.info("文件已上传，fileId: [{}], fileUrl: [{}]", initResponse.getFileId(), initResponse.getUrl());
+            tracker.start(fileSize, digest.getParts().size(), fileSize, digest.getParts().size());
+            return new UploadSuccessResponse(initResponse.getFileId(), initResponse.getUrl());
+        }
+
+        // 断点续传，只并发上传服务端缺失的分片，以及服务端MD5与本地不一致的分片；本地记录只用于跳过重复校验
+        // 服务端未返回分片大小时按本地摘要的分片大小处理
+        long dataSize = initResponse.getDataSize() > 0 ? initResponse.getDataSize() : digest.getDataSize();
+        List<FilePart> missing = ResumePlanner.plan(digest, dataSize, initResponse.getListParts());
+        PartVerifier verifier = new PartVerifier(partExecutor(), Runtime.getRuntime().availableProcessors());
+        missing.addAll(verifier.findMismatches(source, digest, dataSize, initResponse.getListParts(),
+                checkpoint == null ? null : checkpoint.getAcknowledged()));
+        Collections.sort(missing, FilePart.OFFSET_ORDER);
+        LOGGER.debug("断点续传，共 [{}] 个分片待上传", missing.size());
+        long missingBytes = 0;
+        for (FilePart part : missing) {
+            missingBytes += part.getDataSize();
+        }
+        int totalParts = dataSize == digest.getDataSize() ? digest.getParts().size()
+                : (int) ((fileSize + dataSize - 1) / dataSize);
+        tracker.start(fileSize, totalParts, fileSize - missingBytes, totalParts - missing.size());
+        uploadParts(source, fileSha, missing, checkpoint, tracker, handle, optionalParams);
+        handle.awaitRunnable();
+        return finishUpload(fileSha, scheduler);
+    }
+
+    private UploadSuccessResponse finishUpload(String fileSha, PartScheduler scheduler) throws QcloudSdkException, IOException {
+        acquireSlot(scheduler, fileSha);
+        try {
+            return finishUpload(fileSha);
+        } finally {
+            releaseSlot(scheduler, fileSha);
+        }
+    }
+
+    @Override
+    public void multiPullVodFile(List<MultiPullParams> pullList) throws QcloudSdkException {
+        if (pullList == null || pullList.size() == 0) {
+            throw new ParamException("pullList is empty!");
+        }
+        JSONObject resJson = sendMultiPull(pullList);
+        int code = resJson.getIntValue(COMMON_KEYS.CODE);
+        String message = resJson.getString(COMMON_KEYS.MESSAGE);
+        LOGGER.debug("拉取上传结束，返回：code = [{}], message = [{}]", code, message);
+
+        if (code < 0) {
+            throw new ServerException(code, message);
+        }
+    }
 
-                    // 分片已存在
-                    offset += fin.skip(partDataSize);
+    @Override
+    public List<MultiPullResult> bulkPullVodFile(List<MultiPullParams> pullList, BulkPullParams bulkParams) throws QcloudSdkException {
+        if (pullList == null || pullList.size() == 0) {
+            throw new ParamException("pullList is empty!");
+        }
+        final BulkPullParams bp = bulkParams == null ? new BulkPullParams() : bulkParams;
+        final MultiPullResult[] results = new MultiPullResult[pullList.size()];
+        final Queue<Integer> chunkStarts = new ConcurrentLinkedQueue<>();
+        final int chunkSize = Math.max(1, bp.getChunkSize());
+        for (int i = 0; i < pullList.size(); i += chunkSize) {
+            chunkStarts.add(i);
+        }
+        final List<MultiPullParams> all = pullList;
+        // 调用线程被中断时通知各工作线程不再领取新的分组，也不再等待重试
+        final CountDownLatch stop = new CountDownLatch(1);
+        Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                Integer start;
+                while (stop.getCount() > 0 && (start = chunkStarts.poll()) != null) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        stop.countDown();
+                        chunkStarts.add(start);
+                        break;
+                    }
+                    int end = Math.min(start + chunkSize, all.size());
+                    submitPullChunk(all.subList(start, end), start, results, bp.getRetryInterval(), stop);
                 }
+            }
+        };
 
-                // 上传剩余的连续分片
-                //noinspection Duplicates
-                while (offset < fileSize) {
-                    int len = fin.read(buffer);
-                    if (len < DEFAULT_DATA_SIZE) {
-                        buffer = Arrays.copyOfRange(buffer, 0, len);
+        int workers = Math.min(Math.max(1, bp.getConcurrency()), (pullList.size() + chunkSize - 1) / chunkSize);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 1; i < workers; i++) {
+                futures.add(partExecutor().submit(worker));
+            }
+            worker.run();
+        } finally {
+            // 等待全部工作线程结束后再读取结果，已发出的分组保留服务端的真实结果
+            boolean interrupted = Thread.interrupted();
+            if (interrupted) {
+                stop.countDown();
+            }
+            for (Future<?> future : futures) {
+                while (true) {
+                    try {
+                        future.get();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                        stop.countDown();
+                    } catch (ExecutionException e) {
+                        LOGGER.error("批量拉取上传异常", e.getCause());
+                        break;
                     }
-                    uploadPart(fileSha, offset, len, DigestUtils.md5Hex(buffer), buffer);
-                    offset += len;
                 }
-            } else if (returnCode == 2) {
-                LOGGER.info("文件已上传，fileId: [{}], fileUrl: [{}]", initResponse.getFileId(), initResponse.getUrl());
-                return new UploadSuccessResponse(initResponse.getFileId(), initResponse.getUrl());
             }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
 
+        // 被中断时未开始提交的分组以取消返回
+        CancelledException notSubmitted = new CancelledException("Not submitted.");
+        List<MultiPullResult> list = new ArrayList<>(results.length);
+        for (int i = 0; i < results.length; i++) {
+            MultiPullParams pp = pullList.get(i);
+            list.add(results[i] != null ? results[i] : new MultiPullResult(pp.getUrl(), pp.getFileName(), false,
+                    null, notSubmitted.getCode(), notSubmitted.getMessage()));
         }
+        return list;
+    }
 
-        return finishUpload(fileSha);
+    /**
+     * 提交一组拉取请求并记录每个URL的结果，仅在服务端返回可重试时按递增间隔重试。
+     * 网络失败时客户端已重试过，且请求可能已被服务端接受，不再重新提交整组
+     */
+    private void submitPullChunk(List<MultiPullParams> chunk, int offset, MultiPullResult[] results,
+                                 long retryInterval, CountDownLatch stop) {
+        int maxRetries = httpClient.getClientConfig().getMaxRetries();
+        int retry = 0;
+        int code;
+        String message;
+        while (true) {
+            try {
+                // 每次重试重新签名，避免时间戳和随机数重复
+                JSONObject resJson = sendMultiPull(chunk);
+                code = resJson.getIntValue(COMMON_KEYS.CODE);
+                message = resJson.getString(COMMON_KEYS.MESSAGE);
+                LOGGER.debug("第 [{}] 次提交拉取分组 [{}]，返回：code = [{}], message = [{}]",
+                        retry + 1, offset, code, message);
+                if (code >= 0) {
+                    recordPullResults(chunk, offset, results, resJson.getJSONArray(ParamKeys.OUTPUT_DATA));
+                    return;
+                }
+                if (resJson.getIntValue(COMMON_KEYS.CAN_RETRY) != 1) {
+                    break;
+                }
+            } catch (QcloudSdkException e) {
+                code = e.getCode();
+                message = e.getMessage();
+                break;
+            } catch (RuntimeException e) {
+                // 返回数据无法解析时服务端可能已接受该分组，不再重试，避免重复创建拉取任务
+                LOGGER.error("拉取分组 [{}] 返回数据无法解析", offset, e);
+                ServerException invalid = new ServerException("Invalid response: " + e.getMessage());
+                code = invalid.getCode();
+                message = invalid.getMessage();
+                break;
+            }
+            if (++retry >= maxRetries) {
+                break;
+            }
+            try {
+                if (stop.await(retryInterval * retry, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        LOGGER.warn("拉取分组 [{}] 提交失败：code = [{}], message = [{}]", offset, code, message);
+        for (int i = 0; i < chunk.size(); i++) {
+            MultiPullParams pp = chunk.get(i);
+            results[offset + i] = new MultiPullResult(pp.getUrl(), pp.getFileName(), false, null, code, message);
+        }
     }
 
-    @Override
-    public void multiPullVodFile(List<MultiPullParams> pullList) throws QcloudSdkException {
-        if (pullList == null || pullList.size() == 0) {
-            throw new ParamException("pullList is empty!");
+    /**
+     * 记录已接受分组中每个URL的任务ID，返回数据按源URL匹配，未返回源URL的数据按顺序对应；
+     * 找不到对应任务的URL以未接受返回
+     */
+    private void recordPullResults(List<MultiPullParams> chunk, int offset, MultiPullResult[] results,
+                                   JSONArray data) {
+        Map<String, String> taskIds = new HashMap<>();
+        if (data != null) {
+            for (int i = 0; i < data.size(); i++) {
+                JSONObject item = data.getJSONObject(i);
+                String url = item.getString(MULTI_PULL_VOD_FILE.OUTPUT_SOURCE_URL);
+                taskIds.put(url != null ? url : String.valueOf(i), item.getString(MULTI_PULL_VOD_FILE.OUTPUT_TASK_ID));
+            }
         }
+        ServerException noTask = new ServerException("No pull task returned for this url.");
+        for (int i = 0; i < chunk.size(); i++) {
+            MultiPullParams pp = chunk.get(i);
+            String taskId = taskIds.containsKey(pp.getUrl()) ? taskIds.get(pp.getUrl()) : taskIds.get(String.valueOf(i));
+            if (taskId != null) {
+                results[offset + i] = new MultiPullResult(pp.getUrl(), pp.getFileName(), true, taskId, 0, null);
+            } else {
+                LOGGER.warn("拉取分组 [{}] 的返回中没有URL [{}] 对应的任务", offset, pp.getUrl());
+                results[offset + i] = new MultiPullResult(pp.getUrl(), pp.getFileName(), false, null,
+                        noTask.getCode(), noTask.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 构造并签名拉取请求，一次提交列表中的全部URL
+     */
+    private JSONObject sendMultiPull(List<MultiPullParams> pullList) throws QcloudSdkException {
         Map<String, String> params = genCommonParams(MULTI_PULL_VOD_FILE.ACTION, region);
         for (int i = 0; i < pullList.size(); i++) {
             MultiPullParams pp = pullList.get(i);
@@ -500,28 +1033,214 @@ public class VodUploadOperator extends AbstractOperator implements IVodUpload {
         request.setBody(new UrlEncodedFormEntity(ppList, StandardCharsets.UTF_8));
 
         String resString = httpClient.sendHttpRequest(request);
-        JSONObject resJson = JSON.parseObject(resString);
-        int code = resJson.getIntValue(COMMON_KEYS.CODE);
-        String message = resJson.getString(COMMON_KEYS.MESSAGE);
-        LOGGER.debug("拉取上传结束，返回：code = [{}], message = [{}]", code, message);
+        return JSON.parseObject(resString);
+    }
 
-        if (code < 0) {
-            throw new ServerException(code, message);
+    /**
+     * 按可选参数中的并发数上传文件分片，每个分片独立发送并重试，分片未带MD5时由预处理线程提前读取计算
+     */
+    private void uploadParts(final PartSource source, final String fileSha, List<FilePart> parts,
+                             final Checkpoint checkpoint, final UploadProgressTracker tracker,
+                             final UploadHandle handle, UploadOptionalParams ops)
+            throws QcloudSdkException, IOException {
+        int concurrency = ops == null || ops.getConcurrency() == null ? 1 : ops.getConcurrency();
+        final PartSizePolicy partSizePolicy = partSizePolicy(ops);
+        final TokenBucketRateLimiter rateLimiter = rateLimiter(ops);
+        final PartScheduler scheduler = partScheduler(ops);
+        // 客户端已对每个请求做网络重试，这里只在其全部失败后少量整片重发，不使用客户端的重试次数
+        int partRetries = ops == null || ops.getPartRetries() == null ? DEFAULT_PART_RETRIES : ops.getPartRetries();
+        ParallelPartUploader uploader = new ParallelPartUploader(partExecutor(), concurrency, 1 + Math.max(0, partRetries));
+        if (tracker.isEnabled()) {
+            uploader.setRetryListener(new ParallelPartUploader.RetryListener() {
+                @Override
+                public void onRetry(FilePart part, int attempt, Exception cause) {
+                    tracker.partRetried(part, attempt, cause);
+                }
+            });
+        }
+
+        // 有分片需要在发送前读取数据计算MD5时，启用读取与发送并行的流水线
+        ParallelPartUploader.PartPreparer preparer = null;
+        for (FilePart part : parts) {
+            if (part.getDataMd5() == null) {
+                preparer = new ParallelPartUploader.PartPreparer() {
+                    @Override
+                    public FilePart prepare(FilePart part) throws IOException {
+                        if (part.getDataMd5() != null) {
+                            return part;
+                        }
+                        HttpEntity data = source.entity(part.getOffset(), part.getDataSize());
+                        return new FilePart(part.getOffset(), part.getDataSize(), FileDigest.md5Hex(data));
+                    }
+                };
+                break;
+            }
+        }
+
+        uploader.setCanceller(handle.getCanceller());
+        uploader.setSpeculation(ops == null ? null : ops.getSpeculativeResend());
+        uploader.upload(parts, preparer, new ParallelPartUploader.PartSender() {
+            @Override
+            public void send(FilePart part, RequestCanceller canceller) throws QcloudSdkException, IOException {
+                // 暂停时在此等待，已发出的分片不受影响
+                handle.awaitRunnable();
+                // 文件数据源的分片直接从文件通道写出，不在堆上复制
+                HttpEntity data = ThrottledEntity.wrap(source.entity(part.getOffset(), part.getDataSize()), rateLimiter);
+                // 内存数据源已在暂存时占用预算，发送时不再重复占用。
+                // 与小文件、数据流上传保持同一加锁顺序：先占用预算再获取调度器名额，持有名额时不等待预算
+                long reserved = source.isInMemory() ? 0 : acquireInflight(part.getDataSize());
+                try {
+                    acquireSlot(scheduler, fileSha);
+                    try {
+                        tracker.partStarted(part);
+                        try {
+                            long start = System.nanoTime();
+                            uploadPart(fileSha, part.getOffset(), part.getDataSize(), part.getDataMd5(),
+                                    tracker.track(data), canceller);
+                            partSizePolicy.onPartUploaded(part.getDataSize(), System.nanoTime() - start);
+                        } finally {
+                            tracker.partFinished(part);
+                        }
+                    } finally {
+                        releaseSlot(scheduler, fileSha);
+                    }
+                } finally {
+                    releaseInflight(reserved);
+                }
+            }
+
+            @Override
+            public void acknowledged(FilePart part) throws IOException {
+                tracker.partAcknowledged(part);
+                if (checkpoint != null) {
+                    checkpoint.acknowledge(part);
+                }
+            }
+        });
+    }
+
+
+    private long acquireInflight(long bytes) throws InterruptedIOException {
+        return inflightBudget == null ? 0 : inflightBudget.acquire(bytes);
+    }
+
+    private void releaseInflight(long bytes) {
+        if (inflightBudget != null && bytes > 0) {
+            inflightBudget.release(bytes);
+        }
+    }
+
+    private UploadProgressListener progressListener(UploadOptionalParams ops) {
+        return ops == null ? null : ops.getProgressListener();
+    }
+
+    private PartScheduler partScheduler(UploadOptionalParams ops) {
+        return ops == null ? null : ops.getPartScheduler();
+    }
+
+    private void acquireSlot(PartScheduler scheduler, String fileSha) throws InterruptedIOException {
+        if (scheduler != null) {
+            scheduler.acquire(fileSha);
+        }
+    }
+
+    private void releaseSlot(PartScheduler scheduler, String fileSha) {
+        if (scheduler != null) {
+            scheduler.release(fileSha);
+        }
+    }
+
+    /**
+     * 从去重索引中查询已上传的文件，未设置索引、未命中或读取索引失败时返回null
+     */
+    private UploadSuccessResponse findUploaded(String fileSha, UploadOptionalParams ops) {
+        if (ops == null || ops.getDedupeStore() == null) {
+            return null;
+        }
+        try {
+            UploadSuccessResponse response = ops.getDedupeStore().get(fileSha);
+            if (response != null) {
+                LOGGER.info("去重索引命中，跳过上传，fileSha: [{}], fileId: [{}]", fileSha, response.getFileId());
+            }
+            return response;
+        } catch (IOException e) {
+            LOGGER.warn("读取去重索引失败，继续上传，fileSha: [{}]", fileSha, e);
+            return null;
         }
     }
 
+    /**
+     * 将上传结果写入去重索引，写入失败不影响上传结果
+     */
+    private void rememberUploaded(String fileSha, UploadSuccessResponse response, UploadOptionalParams ops) {
+        if (ops == null || ops.getDedupeStore() == null || response == null || response.getFileId() == null) {
+            return;
+        }
+        try {
+            ops.getDedupeStore().put(fileSha, response);
+        } catch (IOException e) {
+            LOGGER.warn("写入去重索引失败，fileSha: [{}]", fileSha, e);
+        }
+    }
+
+    private TokenBucketRateLimiter rateLimiter(UploadOptionalParams ops) {
+        return ops == null ? null : ops.getRateLimiter();
+    }
+
+    private boolean isSmallFile(long fileSize, UploadOptionalParams ops) {
+        return ops != null && ops.getSmallFileThreshold() != null && fileSize <= ops.getSmallFileThreshold();
+    }
+
+    private HashScheduler hashScheduler(UploadOptionalParams ops) {
+        if (ops == null || ops.getHashScheduler() == null) {
+            return defaultHashScheduler;
+        }
+        return ops.getHashScheduler();
+    }
+
+    private ReadAheadFileReader hashReader(UploadOptionalParams ops) {
+        if (ops == null || ops.getHashBufferSize() == null) {
+            return new ReadAheadFileReader();
+        }
+        return new ReadAheadFileReader(ops.getHashBufferSize(), ReadAheadFileReader.DEFAULT_READ_AHEAD);
+    }
+
+    private PartSizePolicy partSizePolicy(UploadOptionalParams ops) {
+        if (ops == null || ops.getPartSizePolicy() == null) {
+            return defaultPartSizePolicy;
+        }
+        return ops.getPartSizePolicy();
+    }
+
+    private ExecutorService partExecutor() {
+        ExecutorService executor = this.partExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = this.partExecutor;
+                if (executor == null) {
+                    executor = Executors.newCachedThreadPool(new ThreadFactory() {
+                        private final AtomicInteger index = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "vod-upload-part-" + index.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                    this.partExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
     private String sign(HttpMethod method, Map<String, String> params) {
         //params.put(ParamKeys.SIGNATURE_METHOD_KEY, "HmacSHA256");
         return Sign.sign(credential, method, VodConstants.UPLOAD_REQUEST_HOST,
                 VodConstants.UPLOAD_REQUEST_PATH, params);
     }
 
-    private String calcSha1(File file) throws IOException {
-        try (FileInputStream fin = new FileInputStream(file)) {
-            return DigestUtils.sha1Hex(fin);
-        }
-    }
-
     private String genMultiPullParam(String name, int index) {
         return MULTI_PULL_VOD_FILE.INPUT_PREFIX + "." + index + "." + name;
     }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+/**
+ * 自适应分片大小策略，依据文件大小和已测得的分片吞吐量选择分片大小。
+ * <p>
+ * 不超过最大分片的小文件取能容纳整个文件的最小分片，一次请求即可传完；
+ * 大文件控制总分片数不超过 targetPartCount，并在链路较快时(单个分片耗时低于 targetPartMillis)使用更大的分片。
+ * 结果总是对齐到 {@link #MIN_PART_SIZE} 的2的幂倍数，且不超过 {@link #MAX_PART_SIZE}。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class AdaptivePartSizePolicy implements PartSizePolicy {
+
+    /** 默认期望的单个分片耗时，单位毫秒 */
+    private static final long DEFAULT_TARGET_PART_MILLIS = 1000;
+    /** 默认期望的单个文件最大分片数 */
+    private static final int DEFAULT_TARGET_PART_COUNT = 1024;
+    /** 吞吐量指数滑动平均的权重 */
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final long targetPartMillis;
+    private final int targetPartCount;
+
+    /** 分片吞吐量的滑动平均，单位 字节/毫秒，0表示尚无样本 */
+    private double throughput;
+
+    public AdaptivePartSizePolicy() {
+        this(DEFAULT_TARGET_PART_MILLIS, DEFAULT_TARGET_PART_COUNT);
+    }
+
+    /**
+     * @param targetPartMillis 期望的单个分片耗时，单位毫秒
+     * @param targetPartCount 期望的单个文件最大分片数
+     */
+    public AdaptivePartSizePolicy(long targetPartMillis, int targetPartCount) {
+        this.targetPartMillis = targetPartMillis;
+        this.targetPartCount = Math.max(1, targetPartCount);
+    }
+
+    @Override
+    public long choosePartSize(long fileSize) {
+        if (fileSize <= MAX_PART_SIZE) {
+            return align(fileSize);
+        }
+        long size = (fileSize + targetPartCount - 1) / targetPartCount;
+        double bytesPerMilli;
+        synchronized (this) {
+            bytesPerMilli = throughput;
+        }
+        if (bytesPerMilli > 0) {
+            size = Math.max(size, (long) (bytesPerMilli * targetPartMillis));
+        }
+        return align(size);
+    }
+
+    @Override
+    public synchronized void onPartUploaded(long dataSize, long elapsedNanos) {
+        double rate = (double) dataSize / Math.max(1, elapsedNanos / 1000000);
+        throughput = throughput == 0 ? rate : throughput + EWMA_ALPHA * (rate - throughput);
+    }
+
+    /**
+     * 获取分片吞吐量的滑动平均
+     *
+     * @return 吞吐量，单位 字节/秒，尚无样本时为0
+     */
+    public synchronized double getThroughput() {
+        return throughput * 1000;
+    }
+
+    private static long align(long size) {
+        long aligned = MIN_PART_SIZE;
+        while (aligned < size && aligned < MAX_PART_SIZE) {
+            aligned <<= 1;
+        }
+        return Math.min(aligned, MAX_PART_SIZE);
+    }
+}
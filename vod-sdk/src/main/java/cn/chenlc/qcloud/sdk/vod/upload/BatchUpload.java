@@ -0,0 +1,327 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.common.exceptions.CancelledException;
+import cn.chenlc.qcloud.sdk.common.exceptions.QcloudSdkException;
+import cn.chenlc.qcloud.sdk.vod.vo.UploadSuccessResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量上传，持续接收文件或目录，以有限的并发逐个上传，每个文件结束后立即产出结果。
+ * <p>
+ * 同时进行的文件数不超过 maxConcurrentFiles，等待中的文件按大小升序开始，小文件不会排在大文件之后。
+ * 各文件的摘要计算共用 {@link HashScheduler}，初始化和分片请求共用 {@link PartScheduler}，
+ * 由调度器统一限制总并发并在文件间公平分配连接。
+ * <p>
+ * 通过 {@link #submit(File)} 提交文件，提交完毕后调用 {@link #close()}，
+ * 再循环调用 {@link #next()} 获取结果直到返回null。线程安全。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class BatchUpload {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchUpload.class);
+
+    /** 按文件大小升序，大小相同时按提交顺序 */
+    private static final Comparator<PendingFile> SMALLEST_FIRST = new Comparator<PendingFile>() {
+        @Override
+        public int compare(PendingFile o1, PendingFile o2) {
+            int c = Long.compare(o1.size, o2.size);
+            return c != 0 ? c : Long.compare(o1.seq, o2.seq);
+        }
+    };
+
+    /**
+     * 单个文件的上传逻辑
+     */
+    public interface FileUploader {
+        /**
+         * 上传文件
+         *
+         * @param file 要上传的文件
+         * @param handle 本次上传的控制句柄
+         * @return 上传结果
+         * @throws QcloudSdkException 上传失败时抛出
+         * @throws IOException 读取文件失败时抛出
+         */
+        UploadSuccessResponse upload(File file, UploadHandle handle) throws QcloudSdkException, IOException;
+    }
+
+    private final FileUploader uploader;
+    private final Executor executor;
+    private final int maxConcurrentFiles;
+    private final FileFilter fileFilter;
+
+    private final Queue<PendingFile> pending = new PriorityQueue<>(16, SMALLEST_FIRST);
+    private final Set<UploadHandle> running = new HashSet<>();
+    private final Queue<BatchUploadResult> results = new LinkedList<>();
+    private long seq;
+    private int succeeded;
+    private int failed;
+    private boolean closed;
+    private boolean cancelled;
+
+    /**
+     * @param uploader 单个文件的上传逻辑
+     * @param executor 执行上传的线程池
+     * @param maxConcurrentFiles 同时上传的最大文件数
+     * @param fileFilter 提交目录时筛选文件，为null时上传目录下全部文件
+     */
+    public BatchUpload(FileUploader uploader, Executor executor, int maxConcurrentFiles, FileFilter fileFilter) {
+        this.uploader = uploader;
+        this.executor = executor;
+        this.maxConcurrentFiles = Math.max(1, maxConcurrentFiles);
+        this.fileFilter = fileFilter;
+    }
+
+    /**
+     * 提交文件或目录，目录会被递归遍历，其中符合筛选条件的文件均加入上传
+     *
+     * @param file 文件或目录
+     * @return 加入上传的文件数
+     * @throws FileNotFoundException 文件不存在时抛出
+     * @throws IOException 遍历目录失败时抛出
+     * @throws IllegalStateException 已调用 {@link #close()} 或 {@link #cancel()} 后提交时抛出
+     */
+    public int submit(File file) throws IOException {
+        if (!file.exists()) {
+            throw new FileNotFoundException(file.getAbsolutePath());
+        }
+        final List<File> files = new ArrayList<>();
+        if (file.isDirectory()) {
+            Files.walkFileTree(file.toPath(), new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+                    File f = path.toFile();
+                    if (attrs.isRegularFile() && (fileFilter == null || fileFilter.accept(f))) {
+                        files.add(f);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } else {
+            files.add(file);
+        }
+        synchronized (this) {
+            if (closed || cancelled) {
+                throw new IllegalStateException("Batch upload is closed.");
+            }
+            for (File f : files) {
+                pending.add(new PendingFile(f, f.length(), seq++));
+            }
+            dispatch();
+        }
+        LOGGER.debug("批量上传加入 [{}] 个文件：{}", files.size(), file);
+        return files.size();
+    }
+
+    /**
+     * 不再提交新的文件，已提交的文件继续上传
+     */
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * 取消批量上传：中止正在上传的文件，尚未开始的文件不再上传，均以 {@link CancelledException} 结束
+     */
+    public void cancel() {
+        List<UploadHandle> handles;
+        synchronized (this) {
+            cancelled = true;
+            closed = true;
+            PendingFile next;
+            while ((next = pending.poll()) != null) {
+                failed++;
+                results.add(new BatchUploadResult(next.file, null, new CancelledException("Batch upload cancelled.")));
+            }
+            handles = new ArrayList<>(running);
+            notifyAll();
+        }
+        for (UploadHandle handle : handles) {
+            handle.cancel();
+        }
+    }
+
+    /**
+     * 等待并获取下一个结束的文件的结果，按结束顺序返回
+     *
+     * @return 上传结果，已关闭且全部文件的结果均已取出时返回null
+     * @throws InterruptedIOException 等待时线程被中断
+     */
+    public synchronized BatchUploadResult next() throws InterruptedIOException {
+        try {
+            while (results.isEmpty()) {
+                if (isFinished()) {
+                    return null;
+                }
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Waiting for batch upload result interrupted.");
+        }
+        return results.poll();
+    }
+
+    /**
+     * 在指定时间内等待下一个结束的文件的结果
+     *
+     * @param timeout 超时时间
+     * @param unit 时间单位
+     * @return 上传结果，超时或已全部取出时返回null
+     * @throws InterruptedIOException 等待时线程被中断
+     */
+    public synchronized BatchUploadResult poll(long timeout, TimeUnit unit) throws InterruptedIOException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        try {
+            while (results.isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+                if (isFinished() || remaining <= 0) {
+                    return null;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Waiting for batch upload result interrupted.");
+        }
+        return results.poll();
+    }
+
+    /**
+     * 已关闭且全部文件均已结束
+     */
+    public synchronized boolean isDone() {
+        return closed && pending.isEmpty() && running.isEmpty();
+    }
+
+    public synchronized int getPendingFiles() {
+        return pending.size();
+    }
+
+    public synchronized int getRunningFiles() {
+        return running.size();
+    }
+
+    public synchronized int getSucceededFiles() {
+        return succeeded;
+    }
+
+    public synchronized int getFailedFiles() {
+        return failed;
+    }
+
+    private boolean isFinished() {
+        return isDone() && results.isEmpty();
+    }
+
+    /**
+     * 在持有锁时调用，按名额启动等待中的文件
+     */
+    private void dispatch() {
+        boolean rejected = false;
+        while (!cancelled && running.size() < maxConcurrentFiles && !pending.isEmpty()) {
+            final PendingFile next = pending.poll();
+            final UploadHandle handle = new UploadHandle();
+            running.add(handle);
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        UploadSuccessResponse response = null;
+                        Exception failure = null;
+                        try {
+                            response = uploader.upload(next.file, handle);
+                        } catch (QcloudSdkException | IOException | RuntimeException e) {
+                            LOGGER.debug("批量上传文件失败：{}", next.file, e);
+                            failure = e;
+                        } catch (Error e) {
+                            // 先记录结果，保证等待结果的线程不会一直阻塞，再交给线程池处理
+                            failure = new ExecutionException(e);
+                            throw e;
+                        } finally {
+                            finished(handle, new BatchUploadResult(next.file, response, failure));
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                LOGGER.warn("线程池拒绝执行上传任务：{}", next.file, e);
+                running.remove(handle);
+                failed++;
+                results.add(new BatchUploadResult(next.file, null, e));
+                rejected = true;
+            }
+        }
+        if (rejected) {
+            notifyAll();
+        }
+    }
+
+    private synchronized void finished(UploadHandle handle, BatchUploadResult result) {
+        running.remove(handle);
+        if (result.isSuccess()) {
+            succeeded++;
+        } else {
+            failed++;
+        }
+        results.add(result);
+        dispatch();
+        notifyAll();
+    }
+
+    private static class PendingFile {
+        private final File file;
+        private final long size;
+        private final long seq;
+
+        PendingFile(File file, long size, long seq) {
+            this.file = file;
+            this.size = size;
+            this.seq = seq;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.vod.vo.UploadSuccessResponse;
+
+import java.io.File;
+
+/**
+ * 批量上传中单个文件的上传结果
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class BatchUploadResult {
+
+    private final File file;
+    private final UploadSuccessResponse response;
+    private final Exception failure;
+
+    public BatchUploadResult(File file, UploadSuccessResponse response, Exception failure) {
+        this.file = file;
+        this.response = response;
+        this.failure = failure;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * 上传结果，失败时为null
+     */
+    public UploadSuccessResponse getResponse() {
+        return response;
+    }
+
+    /**
+     * 失败原因，成功时为null；批量上传被取消时，未开始的文件以 CancelledException 结束
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchUploadResult{file=" + file
+                + (failure == null ? ", fileId=" + response.getFileId() : ", failure=" + failure) + "}";
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.vod.vo.UploadSuccessResponse;
+
+import java.io.IOException;
+
+/**
+ * 去重索引，记录文件内容SHA-1对应的点播文件，上传前命中时无需任何请求即可得到结果。
+ * <p>
+ * 实现需线程安全；多台机器共用同一存储时，一台机器上传过的内容在其他机器上也可直接命中。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public interface DedupeStore {
+
+    /**
+     * 查询内容对应的点播文件
+     *
+     * @param fileSha 文件SHA-1
+     * @return 已上传的文件，不存在时返回null
+     * @throws IOException 读取存储失败时抛出
+     */
+    UploadSuccessResponse get(String fileSha) throws IOException;
+
+    /**
+     * 记录内容对应的点播文件
+     *
+     * @param fileSha 文件SHA-1
+     * @param response 上传结果
+     * @throws IOException 写入存储失败时抛出
+     */
+    void put(String fileSha, UploadSuccessResponse response) throws IOException;
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.vod.vo.UploadSuccessResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基于本地文件的去重索引，文件可放在多台机器共享的目录中。
+ * <p>
+ * 索引文件每行记录一个文件：SHA、文件ID、播放地址，以制表符分隔，只追加不修改，追加时持有文件锁。
+ * 查询未命中时读取上次读取之后追加的行，因此其他进程或机器写入的记录无需重启即可命中。
+ * 写入者崩溃留下的不完整行在下次追加时被补成无法解析的行。线程安全。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class FileDedupeStore implements DedupeStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileDedupeStore.class);
+
+    private static final String SEPARATOR = "\t";
+    private static final String NONE = "-";
+
+    private final File indexFile;
+    private final Map<String, UploadSuccessResponse> entries = new HashMap<>();
+    /** 已读取到的文件位置 */
+    private long position;
+    /** 上次读取时末尾不完整的行 */
+    private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+
+    public FileDedupeStore(File indexFile) throws IOException {
+        this.indexFile = indexFile;
+        File parent = indexFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Can not create directory: " + parent);
+        }
+        refresh();
+    }
+
+    @Override
+    public synchronized UploadSuccessResponse get(String fileSha) throws IOException {
+        UploadSuccessResponse response = entries.get(fileSha);
+        if (response == null) {
+            refresh();
+            response = entries.get(fileSha);
+        }
+        return response;
+    }
+
+    @Override
+    public synchronized void put(String fileSha, UploadSuccessResponse response) throws IOException {
+        UploadSuccessResponse old = entries.put(fileSha, response);
+        if (old != null && old.getFileId().equals(response.getFileId())) {
+            return;
+        }
+        String line = fileSha + SEPARATOR + response.getFileId() + SEPARATOR
+                + (response.getUrl() == null ? NONE : response.getUrl()) + "\n";
+        try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                // 持有文件锁期间没有其他写入者，在末尾写入即为追加
+                long end = channel.size();
+                if (!endsWithNewline(channel, end)) {
+                    // 其他写入者崩溃留下了不完整的行，补一个分隔符使其无法解析，再另起一行
+                    LOGGER.info("去重索引末尾有不完整的行，已跳过：{}", indexFile);
+                    line = SEPARATOR + "\n" + line;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    end += channel.write(buffer, end);
+                }
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 读取上次读取之后追加的记录
+     */
+    private void refresh() throws IOException {
+        if (!indexFile.isFile()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < position) {
+                // 索引文件被替换，重新读取
+                position = 0;
+                partialLine.reset();
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            while (position < size) {
+                buffer.clear();
+                int n = channel.read(buffer, position);
+                if (n <= 0) {
+                    break;
+                }
+                position += n;
+                byte[] data = buffer.array();
+                int lineStart = 0;
+                for (int i = 0; i < n; i++) {
+                    if (data[i] == '\n') {
+                        partialLine.write(data, lineStart, i - lineStart);
+                        parseLine(new String(partialLine.toByteArray(), StandardCharsets.UTF_8));
+                        partialLine.reset();
+                        lineStart = i + 1;
+                    }
+                }
+                partialLine.write(data, lineStart, n - lineStart);
+            }
+        }
+    }
+
+    private void parseLine(String line) {
+        // 播放地址不含制表符，字段数不对或有空字段的行是崩溃时写了一半的行
+        String[] fields = line.split(SEPARATOR, -1);
+        if (fields.length != 3 || fields[0].isEmpty() || fields[1].isEmpty() || fields[2].isEmpty()) {
+            LOGGER.debug("忽略无法解析的去重索引行：{}", line);
+            return;
+        }
+        entries.put(fields[0], new UploadSuccessResponse(fields[1], NONE.equals(fields[2]) ? null : fields[2]));
+    }
+
+    private static boolean endsWithNewline(FileChannel channel, long size) throws IOException {
+        if (size == 0) {
+            return true;
+        }
+        ByteBuffer last = ByteBuffer.allocate(1);
+        return channel.read(last, size - 1) == 1 && last.get(0) == '\n';
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.common.http.ByteBufferEntity;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.http.HttpEntity;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 文件摘要，包含整个文件的SHA-1以及按分片大小切分后的分片列表
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class FileDigest {
+
+    /** 读取文件时使用的缓冲区大小 */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String fileSha;
+    private final long fileSize;
+    private final long dataSize;
+    private final List<FilePart> parts;
+
+    public FileDigest(String fileSha, long fileSize, long dataSize, List<FilePart> parts) {
+        this.fileSha = fileSha;
+        this.fileSize = fileSize;
+        this.dataSize = dataSize;
+        this.parts = Collections.unmodifiableList(parts);
+    }
+
+    /**
+     * 顺序读取文件一次，同时计算文件SHA-1和每个分片的MD5，使用默认参数预读文件
+     *
+     * @param file 要计算的文件
+     * @param dataSize 分片大小
+     * @return 文件摘要
+     * @throws IOException 读取文件失败时抛出
+     */
+    public static FileDigest compute(File file, long dataSize) throws IOException {
+        return compute(file, dataSize, new ReadAheadFileReader());
+    }
+
+    /**
+     * 通过指定的预读读取器顺序读取文件一次，同时计算文件SHA-1和每个分片的MD5
+     *
+     * @param file 要计算的文件
+     * @param dataSize 分片大小
+     * @param reader 预读读取器
+     * @return 文件摘要
+     * @throws IOException 读取文件失败时抛出
+     */
+    public static FileDigest compute(File file, long dataSize, ReadAheadFileReader reader) throws IOException {
+        return compute(file, dataSize, reader, null);
+    }
+
+    /**
+     * 通过指定的预读读取器顺序读取文件一次，同时计算文件SHA-1和每个分片的MD5，并报告计算进度
+     *
+     * @param file 要计算的文件
+     * @param dataSize 分片大小
+     * @param reader 预读读取器
+     * @param tracker 进度统计，可为null
+     * @return 文件摘要
+     * @throws IOException 读取文件失败时抛出
+     */
+    public static FileDigest compute(File file, long dataSize, ReadAheadFileReader reader,
+                                     final UploadProgressTracker tracker) throws IOException {
+        final Builder builder = new Builder(dataSize);
+        final long total = file.length();
+        reader.read(file, new ReadAheadFileReader.BlockHandler() {
+            @Override
+            public void handle(byte[] data, int off, int len) {
+                builder.update(data, off, len);
+                if (tracker != null) {
+                    tracker.hashProgress(builder.size(), total);
+                }
+            }
+        });
+        return builder.build();
+    }
+
+    /**
+     * 顺序读取数据流直到结束，同时计算SHA-1和每个分片的MD5，不负责关闭数据流
+     *
+     * @param in 数据流
+     * @param dataSize 分片大小
+     * @return 数据摘要
+     * @throws IOException 读取失败时抛出
+     */
+    public static FileDigest compute(InputStream in, long dataSize) throws IOException {
+        Builder builder = new Builder(dataSize);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int len;
+        while ((len = in.read(buffer)) != -1) {
+            builder.update(buffer, 0, len);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 计算分片请求体的MD5，缓冲区实体直接读取缓冲区，不复制数据
+     *
+     * @param entity 分片请求体
+     * @return 十六进制MD5
+     * @throws IOException 读取数据失败时抛出
+     */
+    public static String md5Hex(HttpEntity entity) throws IOException {
+        if (entity instanceof ByteBufferEntity) {
+            MessageDigest md5 = DigestUtils.getMd5Digest();
+            ((ByteBufferEntity) entity).updateDigest(md5);
+            return Hex.encodeHexString(md5.digest());
+        }
+        try (InputStream in = entity.getContent()) {
+            return DigestUtils.md5Hex(in);
+        }
+    }
+
+    public String getFileSha() {
+        return fileSha;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    /**
+     * 获取按偏移升序排列的分片列表，通过 compute 计算的摘要中每个分片均带有MD5
+     *
+     * @return 分片列表
+     */
+    public List<FilePart> getParts() {
+        return parts;
+    }
+
+    /**
+     * 增量计算文件摘要，按顺序喂入数据，数据结束后调用 {@link #build()}。非线程安全
+     */
+    public static class Builder {
+        private final long dataSize;
+        private final MessageDigest sha1 = DigestUtils.getSha1Digest();
+        private final MessageDigest md5 = DigestUtils.getMd5Digest();
+        private final List<FilePart> parts = new ArrayList<>();
+        private long partOffset;
+        private long partFilled;
+
+        public Builder(long dataSize) {
+            this.dataSize = dataSize;
+        }
+
+        public Builder update(byte[] data, int off, int len) {
+            sha1.update(data, off, len);
+            int pos = off;
+            int end = off + len;
+            while (pos < end) {
+                int n = (int) Math.min(end - pos, dataSize - partFilled);
+                md5.update(data, pos, n);
+                pos += n;
+                partFilled += n;
+                if (partFilled == dataSize) {
+                    completePart();
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 已喂入的数据总长度
+         *
+         * @return 字节数
+         */
+        public long size() {
+            return partOffset + partFilled;
+        }
+
+        public FileDigest build() {
+            if (partFilled > 0) {
+                completePart();
+            }
+            return new FileDigest(Hex.encodeHexString(sha1.digest()), partOffset, dataSize, parts);
+        }
+
+        private void completePart() {
+            parts.add(new FilePart(partOffset, partFilled, Hex.encodeHexString(md5.digest())));
+            partOffset += partFilled;
+            partFilled = 0;
+        }
+    }
+}
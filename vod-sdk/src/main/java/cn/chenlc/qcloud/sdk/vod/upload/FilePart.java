@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 文件分片描述，记录分片在文件中的偏移、长度，以及预先计算好的分片MD5
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class FilePart {
+
+    /** 按偏移升序排列 */
+    public static final Comparator<FilePart> OFFSET_ORDER = new Comparator<FilePart>() {
+        @Override
+        public int compare(FilePart o1, FilePart o2) {
+            return Long.compare(o1.getOffset(), o2.getOffset());
+        }
+    };
+
+    /** 分片在文件中的偏移 */
+    private final long offset;
+    /** 分片大小 */
+    private final long dataSize;
+    /** 分片数据的MD5，未预先计算时为null */
+    private final String dataMd5;
+
+    public FilePart(long offset, long dataSize) {
+        this(offset, dataSize, null);
+    }
+
+    public FilePart(long offset, long dataSize, String dataMd5) {
+        this.offset = offset;
+        this.dataSize = dataSize;
+        this.dataMd5 = dataMd5;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    public String getDataMd5() {
+        return dataMd5;
+    }
+
+    /**
+     * 按固定分片大小切分文件，最后一个分片可能小于分片大小
+     *
+     * @param fileSize 文件大小
+     * @param dataSize 分片大小
+     * @return 按偏移升序排列的分片列表
+     */
+    public static List<FilePart> split(long fileSize, long dataSize) {
+        List<FilePart> parts = new ArrayList<>((int) ((fileSize + dataSize - 1) / dataSize));
+        for (long offset = 0; offset < fileSize; offset += dataSize) {
+            parts.add(new FilePart(offset, Math.min(dataSize, fileSize - offset)));
+        }
+        return parts;
+    }
+
+    @Override
+    public String toString() {
+        return "FilePart{offset=" + offset + ", dataSize=" + dataSize + "}";
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+/**
+ * 固定分片大小策略
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class FixedPartSizePolicy implements PartSizePolicy {
+
+    private final long partSize;
+
+    public FixedPartSizePolicy(long partSize) {
+        if (partSize < MIN_PART_SIZE || partSize > MAX_PART_SIZE) {
+            throw new IllegalArgumentException("partSize must be between " + MIN_PART_SIZE + " and " + MAX_PART_SIZE);
+        }
+        this.partSize = partSize;
+    }
+
+    @Override
+    public long choosePartSize(long fileSize) {
+        return partSize;
+    }
+
+    @Override
+    public void onPartUploaded(long dataSize, long elapsedNanos) {
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 跟随仍在写入的文件增量计算摘要。
+ * <p>
+ * 每次 {@link #poll()} 读取自上次以来新追加的数据并更新SHA-1和分片MD5，写入方关闭文件后调用 {@link #finish()}
+ * 读取剩余数据并得到完整摘要。文件只能追加，长度变小时视为文件被重写并抛出异常。非线程安全。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class GrowingFileDigester implements Closeable {
+
+    /** 读取文件时使用的缓冲区大小 */
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final File file;
+    private final FileChannel channel;
+    private final FileDigest.Builder builder;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * @param file 正在写入的文件
+     * @param dataSize 分片大小
+     * @throws IOException 打开文件失败时抛出
+     */
+    public GrowingFileDigester(File file, long dataSize) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.builder = new FileDigest.Builder(dataSize);
+    }
+
+    /**
+     * 读取新追加的数据
+     *
+     * @return 本次读取的字节数
+     * @throws IOException 读取失败或文件被截断时抛出
+     */
+    public long poll() throws IOException {
+        long size = channel.size();
+        long position = builder.size();
+        if (size < position) {
+            throw new IOException("File shrank while being followed: " + file);
+        }
+        long read = 0;
+        while (position < size) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), size - position));
+            int n = channel.read(buffer, position);
+            if (n <= 0) {
+                break;
+            }
+            builder.update(buffer.array(), 0, n);
+            position += n;
+            read += n;
+        }
+        return read;
+    }
+
+    /**
+     * 已计算的字节数
+     *
+     * @return 字节数
+     */
+    public long size() {
+        return builder.size();
+    }
+
+    /**
+     * 读取剩余数据并得到完整摘要，写入方关闭文件后调用
+     *
+     * @return 文件摘要
+     * @throws IOException 读取失败或文件被截断时抛出
+     */
+    public FileDigest finish() throws IOException {
+        poll();
+        return builder.build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按磁盘调度的文件摘要计算器，多个上传共享同一个实例。
+ * <p>
+ * 待计算的文件按所在的 {@link java.nio.file.FileStore} 分组，每个设备同时进行的顺序扫描数不超过 perDeviceLimit，
+ * 避免多个线程交替读取同一块磁盘造成大量寻道；不同设备上的文件仍然并行计算。
+ * 同一设备上等待的文件按大小从小到大依次计算，短任务可以更早进入上传阶段。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class HashScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashScheduler.class);
+
+    /** 无法识别所在设备的文件共用的分组 */
+    private static final Object UNKNOWN_DEVICE = new Object();
+
+    private final int perDeviceLimit;
+    private final ConcurrentMap<Object, DeviceQueue> devices = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public HashScheduler() {
+        this(1);
+    }
+
+    /**
+     * @param perDeviceLimit 每个设备同时进行的摘要计算数
+     */
+    public HashScheduler(int perDeviceLimit) {
+        if (perDeviceLimit <= 0) {
+            throw new IllegalArgumentException("perDeviceLimit must be positive!");
+        }
+        this.perDeviceLimit = perDeviceLimit;
+    }
+
+    /**
+     * 等待所在设备空闲后计算文件摘要
+     *
+     * @param file 要计算的文件
+     * @param dataSize 分片大小
+     * @param reader 预读读取器
+     * @return 文件摘要
+     * @throws IOException 读取文件失败或等待时线程被中断时抛出
+     */
+    public FileDigest compute(File file, long dataSize, ReadAheadFileReader reader) throws IOException {
+        return compute(file, dataSize, reader, null);
+    }
+
+    /**
+     * 等待所在设备空闲后计算文件摘要，并报告计算进度
+     *
+     * @param file 要计算的文件
+     * @param dataSize 分片大小
+     * @param reader 预读读取器
+     * @param tracker 进度统计，可为null
+     * @return 文件摘要
+     * @throws IOException 读取文件失败或等待时线程被中断时抛出
+     */
+    public FileDigest compute(File file, long dataSize, ReadAheadFileReader reader, UploadProgressTracker tracker)
+            throws IOException {
+        DeviceQueue queue = acquire(file);
+        try {
+            return FileDigest.compute(file, dataSize, reader, tracker);
+        } finally {
+            queue.release();
+        }
+    }
+
+    /**
+     * 等待所在设备空闲后只计算文件SHA-1，不计算分片MD5，与摘要计算共用设备名额
+     *
+     * @param file 要计算的文件
+     * @param reader 预读读取器
+     * @return 十六进制SHA-1
+     * @throws IOException 读取文件失败或等待时线程被中断时抛出
+     */
+    public String sha1Hex(File file, ReadAheadFileReader reader) throws IOException {
+        DeviceQueue queue = acquire(file);
+        try {
+            final MessageDigest sha1 = DigestUtils.getSha1Digest();
+            reader.read(file, new ReadAheadFileReader.BlockHandler() {
+                @Override
+                public void handle(byte[] data, int off, int len) {
+                    sha1.update(data, off, len);
+                }
+            });
+            return Hex.encodeHexString(sha1.digest());
+        } finally {
+            queue.release();
+        }
+    }
+
+    private DeviceQueue acquire(File file) throws InterruptedIOException {
+        DeviceQueue queue = deviceQueue(file);
+        Waiter waiter = new Waiter(file.length(), sequence.getAndIncrement());
+        try {
+            queue.acquire(waiter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Waiting for hash slot interrupted.");
+        }
+        return queue;
+    }
+
+    private DeviceQueue deviceQueue(File file) {
+        Object device;
+        try {
+            device = Files.getFileStore(file.toPath());
+        } catch (IOException e) {
+            LOGGER.debug("无法识别文件所在设备：{}", file, e);
+            device = UNKNOWN_DEVICE;
+        }
+        DeviceQueue queue = devices.get(device);
+        if (queue == null) {
+            DeviceQueue created = new DeviceQueue();
+            queue = devices.putIfAbsent(device, created);
+            if (queue == null) {
+                queue = created;
+            }
+        }
+        return queue;
+    }
+
+    private static class Waiter {
+        private final long size;
+        private final long seq;
+
+        Waiter(long size, long seq) {
+            this.size = size;
+            this.seq = seq;
+        }
+    }
+
+    /** 小文件优先，大小相同时先到先得 */
+    private static final Comparator<Waiter> SHORTEST_FIRST = new Comparator<Waiter>() {
+        @Override
+        public int compare(Waiter o1, Waiter o2) {
+            int c = Long.compare(o1.size, o2.size);
+            return c != 0 ? c : Long.compare(o1.seq, o2.seq);
+        }
+    };
+
+    /**
+     * 单个设备的等待队列
+     */
+    private class DeviceQueue {
+        private final PriorityQueue<Waiter> waiting = new PriorityQueue<>(11, SHORTEST_FIRST);
+        private int active;
+
+        synchronized void acquire(Waiter waiter) throws InterruptedException {
+            waiting.add(waiter);
+            try {
+                while (active >= perDeviceLimit || waiting.peek() != waiter) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                waiting.remove(waiter);
+                notifyAll();
+                throw e;
+            }
+            waiting.poll();
+            active++;
+            // 仍有空闲名额时唤醒下一个等待者
+            notifyAll();
+        }
+
+        synchronized void release() {
+            active--;
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import java.util.Arrays;
+
+/**
+ * 固定容量的耗时样本环形缓冲区，只保留最近的样本，写满后覆盖最早的样本。线程安全
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+class LatencyWindow {
+
+    private final long[] samples;
+    private int count;
+    private int next;
+    /** 每加入一个样本加一，用于判断分位数是否需要重新计算 */
+    private long version;
+
+    LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    synchronized void add(long latencyNanos) {
+        samples[next] = latencyNanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        version++;
+    }
+
+    synchronized int size() {
+        return count;
+    }
+
+    synchronized long version() {
+        return version;
+    }
+
+    /**
+     * 计算当前样本的分位数，排序在复制出的样本上进行，不持有锁
+     *
+     * @param p 分位数，取值 (0, 1]
+     * @return 耗时，单位纳秒，没有样本时返回-1
+     */
+    long percentile(double p) {
+        long[] copy;
+        synchronized (this) {
+            copy = Arrays.copyOf(samples, count);
+        }
+        if (copy.length == 0) {
+            return -1;
+        }
+        Arrays.sort(copy);
+        int index = (int) Math.ceil(Math.min(1, Math.max(0, p)) * copy.length) - 1;
+        return copy[Math.max(0, index)];
+    }
+}
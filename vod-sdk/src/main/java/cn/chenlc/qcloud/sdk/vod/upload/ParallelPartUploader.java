@@ -0,0 +1,654 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.common.exceptions.NetworkException;
+import cn.chenlc.qcloud.sdk.common.exceptions.QcloudSdkException;
+import cn.chenlc.qcloud.sdk.common.http.RequestCanceller;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 分片并发上传器，同时保持至多 concurrency 个分片在传输中。
+ * <p>
+ * 每个分片独立重试，任意分片最终失败时，其余工作线程不再领取新分片，并将首个异常抛给调用方。
+ * 调用线程本身也作为一个工作线程参与上传，concurrency 为1且无需预处理时不占用线程池。
+ * <p>
+ * 指定 {@link PartPreparer} 时，上传分为两级流水线：一个预处理线程按顺序读取数据、计算MD5，
+ * 放入容量为 prepareAhead 的有界队列，发送线程从队列领取分片。队列满时预处理线程阻塞，
+ * 因此磁盘读取最多领先网络发送 prepareAhead 个分片。
+ * <p>
+ * 设置 {@link SpeculativeResendPolicy} 后，后台检查线程发现耗时明显长于其他分片的慢分片时，
+ * 在另一个连接上重复发送该分片，先完成的一次生效并中止另一次，由 {@link PartSender#acknowledged} 确认一次。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class ParallelPartUploader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelPartUploader.class);
+
+    /** 等待队列时检查失败状态的间隔，单位毫秒 */
+    private static final long POLL_INTERVAL = 100;
+
+    /** 预处理结束标记 */
+    private static final FilePart END = new FilePart(-1, 0);
+
+    /**
+     * 单个分片的发送逻辑
+     */
+    public interface PartSender {
+        /**
+         * 发送分片一次，返回即表示服务端已接收该分片。推测重发时同一分片可能被并发发送两次
+         *
+         * @param part 要发送的分片
+         * @param canceller 本次发送使用的取消器，未设置取消器且未启用推测重发时为null
+         * @throws QcloudSdkException 请求失败时抛出
+         * @throws IOException 读取分片数据失败时抛出
+         */
+        void send(FilePart part, RequestCanceller canceller) throws QcloudSdkException, IOException;
+
+        /**
+         * 分片上传成功，每个分片只回调一次
+         *
+         * @param part 分片
+         * @throws IOException 记录确认状态失败时抛出
+         */
+        void acknowledged(FilePart part) throws IOException;
+    }
+
+    /**
+     * 分片发送前的预处理逻辑，例如读取数据并计算MD5
+     */
+    public interface PartPreparer {
+        /**
+         * 预处理分片
+         *
+         * @param part 原始分片
+         * @return 预处理后交给发送线程的分片
+         * @throws IOException 读取分片数据失败时抛出
+         */
+        FilePart prepare(FilePart part) throws IOException;
+    }
+
+    /**
+     * 分片重试事件监听
+     */
+    public interface RetryListener {
+        /**
+         * 分片发送失败，即将重试
+         *
+         * @param part 分片
+         * @param attempt 已失败的次数
+         * @param cause 失败原因
+         */
+        void onRetry(FilePart part, int attempt, Exception cause);
+    }
+
+    private final ExecutorService executor;
+    private final int concurrency;
+    private final int maxRetries;
+    private final int prepareAhead;
+    private volatile RetryListener retryListener;
+    private volatile RequestCanceller canceller;
+    private volatile SpeculativeResendPolicy speculation;
+
+    /**
+     * @param executor 上传线程池
+     * @param concurrency 同时上传的分片数
+     * @param maxRetries 单个分片网络失败时的最大尝试次数
+     */
+    public ParallelPartUploader(ExecutorService executor, int concurrency, int maxRetries) {
+        this(executor, concurrency, maxRetries, concurrency * 2);
+    }
+
+    /**
+     * @param executor 上传线程池
+     * @param concurrency 同时上传的分片数
+     * @param maxRetries 单个分片网络失败时的最大尝试次数
+     * @param prepareAhead 预处理完成、等待发送的最大分片数
+     */
+    public ParallelPartUploader(ExecutorService executor, int concurrency, int maxRetries, int prepareAhead) {
+        this.executor = executor;
+        this.concurrency = Math.max(1, concurrency);
+        this.maxRetries = Math.max(1, maxRetries);
+        this.prepareAhead = Math.max(1, prepareAhead);
+    }
+
+    /**
+     * 设置分片重试事件监听
+     *
+     * @param retryListener 监听器，可为null
+     */
+    public void setRetryListener(RetryListener retryListener) {
+        this.retryListener = retryListener;
+    }
+
+    /**
+     * 设置取消器，每次发送使用其派生的子取消器，取消该取消器即中止全部发送
+     *
+     * @param canceller 取消器，可为null
+     */
+    public void setCanceller(RequestCanceller canceller) {
+        this.canceller = canceller;
+    }
+
+    /**
+     * 启用慢分片推测重发
+     *
+     * @param speculation 推测重发策略，为null时不启用
+     */
+    public void setSpeculation(SpeculativeResendPolicy speculation) {
+        this.speculation = speculation;
+    }
+
+    /**
+     * 上传全部分片，所有分片均被确认后返回
+     *
+     * @param parts 要上传的分片
+     * @param sender 分片发送逻辑
+     * @throws QcloudSdkException 分片上传失败时抛出
+     * @throws IOException 读取文件失败或线程被中断时抛出
+     */
+    public void upload(List<FilePart> parts, PartSender sender) throws QcloudSdkException, IOException {
+        upload(parts, null, sender);
+    }
+
+    /**
+     * 以流水线方式上传全部分片，预处理与发送并行，所有分片均被确认后返回
+     *
+     * @param parts 要上传的分片
+     * @param preparer 分片预处理逻辑，为null时不做预处理
+     * @param sender 分片发送逻辑
+     * @throws QcloudSdkException 分片上传失败时抛出
+     * @throws IOException 读取文件失败或线程被中断时抛出
+     */
+    public void upload(List<FilePart> parts, PartPreparer preparer, PartSender sender)
+            throws QcloudSdkException, IOException {
+        if (parts == null || parts.isEmpty()) {
+            return;
+        }
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        PartQueue queue;
+        if (preparer == null) {
+            queue = new PendingQueue(parts);
+        } else {
+            BlockingQueue<FilePart> prepared = new ArrayBlockingQueue<>(prepareAhead);
+            futures.add(executor.submit(new Producer(parts, preparer, prepared, failure)));
+            queue = new PreparedQueue(prepared, failure);
+        }
+        int workers = Math.min(concurrency, parts.size());
+        SpeculativeResendPolicy policy = speculation;
+        Speculator speculator = null;
+        // 只有一个发送线程时，慢分片无法与其他分片比较，不做推测重发
+        if (policy != null && workers > 1) {
+            speculator = new Speculator(policy, sender, parts, failure);
+        }
+        Worker worker = new Worker(queue, sender, speculator, failure);
+
+        for (int i = 1; i < workers; i++) {
+            futures.add(executor.submit(worker));
+        }
+        Future<?> speculatorFuture = speculator == null ? null : executor.submit(speculator);
+        // 发送线程因 Error 退出时，先通知其他线程停止并等待全部结束，再抛出该 Error
+        Error fatal = null;
+        try {
+            worker.run();
+        } catch (Error err) {
+            fatal = err;
+            failure.compareAndSet(null, new ExecutionException(err));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                failure.compareAndSet(null, e);
+                for (Future<?> f : futures) {
+                    f.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    failure.compareAndSet(null, (Exception) cause);
+                } else {
+                    if (fatal == null && cause instanceof Error) {
+                        fatal = (Error) cause;
+                    }
+                    failure.compareAndSet(null, e);
+                }
+            }
+        }
+        if (speculatorFuture != null) {
+            speculator.stop();
+            speculatorFuture.cancel(true);
+        }
+        if (fatal != null) {
+            throw fatal;
+        }
+
+        Exception e = failure.get();
+        if (e == null) {
+            return;
+        }
+        if (e instanceof QcloudSdkException) {
+            throw (QcloudSdkException) e;
+        }
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        }
+        if (e instanceof InterruptedException) {
+            throw new InterruptedIOException("Part upload interrupted.");
+        }
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        throw new IOException("Part upload failed.", e);
+    }
+
+    private void sendWithRetry(FilePart part, PartSender sender, InflightPart inflight)
+            throws QcloudSdkException, IOException {
+        int attempt = 0;
+        while (true) {
+            RequestCanceller attemptCanceller = newAttemptCanceller(inflight != null);
+            if (inflight != null) {
+                inflight.primary = attemptCanceller;
+                if (inflight.isDone()) {
+                    // 推测发送已先完成
+                    attemptCanceller.cancel();
+                }
+            }
+            try {
+                sender.send(part, attemptCanceller);
+                return;
+            } catch (NetworkException e) {
+                if (++attempt >= maxRetries || inflight != null && inflight.isDone()) {
+                    throw e;
+                }
+                LOGGER.warn("分片上传失败，第 [{}] 次重试，{}", attempt, part, e);
+                RetryListener listener = retryListener;
+                if (listener != null) {
+                    listener.onRetry(part, attempt, e);
+                }
+            } finally {
+                if (attemptCanceller != null && attemptCanceller != canceller) {
+                    attemptCanceller.detach();
+                }
+            }
+        }
+    }
+
+    /**
+     * 为一次发送创建取消器，需要单独中止该次发送时从根取消器派生子取消器
+     */
+    private RequestCanceller newAttemptCanceller(boolean separate) {
+        RequestCanceller root = canceller;
+        if (!separate) {
+            return root;
+        }
+        return root == null ? new RequestCanceller() : root.newChild();
+    }
+
+    /**
+     * 正在发送的分片，记录首次发送时间，以及原始发送与推测发送中哪一个先完成
+     */
+    private static class InflightPart {
+        private final FilePart part;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final CountDownLatch backupFinished = new CountDownLatch(1);
+        private volatile RequestCanceller primary;
+        private volatile RequestCanceller backup;
+        private volatile boolean backupWon;
+
+        InflightPart(FilePart part) {
+            this.part = part;
+        }
+
+        boolean isDone() {
+            return done.get();
+        }
+
+        /**
+         * 标记分片完成，只有第一次调用返回true
+         */
+        boolean complete() {
+            return done.compareAndSet(false, true);
+        }
+
+        boolean isSpeculated() {
+            return backup != null;
+        }
+    }
+
+    /**
+     * 后台检查慢分片并发起推测发送
+     */
+    private class Speculator implements Runnable {
+        private final SpeculativeResendPolicy policy;
+        private final PartSender sender;
+        private final AtomicReference<Exception> failure;
+        private final Set<InflightPart> inflights =
+                Collections.newSetFromMap(new ConcurrentHashMap<InflightPart, Boolean>());
+        /** 本次上传最近完成的分片耗时，只保留固定数量的样本，反映当前的网络状况 */
+        private final LatencyWindow latencies = new LatencyWindow(SpeculativeResendPolicy.LATENCY_SAMPLES);
+        private long thresholdVersion = -1;
+        private long threshold = -1;
+        private final long maxExtraBytes;
+        private long extraBytes;
+        private volatile boolean stopped;
+
+        Speculator(SpeculativeResendPolicy policy, PartSender sender, List<FilePart> parts,
+                   AtomicReference<Exception> failure) {
+            this.policy = policy;
+            this.sender = sender;
+            this.failure = failure;
+            long totalBytes = 0;
+            for (FilePart part : parts) {
+                totalBytes += part.getDataSize();
+            }
+            this.maxExtraBytes = (long) (totalBytes * Math.max(0, policy.getMaxExtraRatio()));
+        }
+
+        /**
+         * 由发送线程发送分片，推测发送先完成时以推测发送的结果为准
+         */
+        void send(FilePart part) throws QcloudSdkException, IOException {
+            InflightPart inflight = new InflightPart(part);
+            inflights.add(inflight);
+            try {
+                try {
+                    sendWithRetry(part, sender, inflight);
+                } catch (QcloudSdkException | IOException e) {
+                    if (!inflight.isSpeculated() || !awaitBackup(inflight)) {
+                        throw e;
+                    }
+                    return;
+                }
+                if (inflight.complete()) {
+                    cancel(inflight.backup);
+                    partCompleted(inflight);
+                    sender.acknowledged(part);
+                }
+                if (inflight.isSpeculated()) {
+                    awaitBackup(inflight);
+                }
+            } finally {
+                inflights.remove(inflight);
+            }
+        }
+
+        /**
+         * 等待推测发送结束
+         *
+         * @return 推测发送是否先完成并已确认分片
+         */
+        private boolean awaitBackup(InflightPart inflight) throws InterruptedIOException {
+            try {
+                inflight.backupFinished.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for speculative part upload.");
+            }
+            return inflight.backupWon;
+        }
+
+        void stop() {
+            stopped = true;
+        }
+
+        @Override
+        public void run() {
+            long interval = Math.max(1, policy.getCheckIntervalMillis());
+            try {
+                while (!stopped && failure.get() == null) {
+                    Thread.sleep(interval);
+                    long threshold = threshold();
+                    if (threshold < 0) {
+                        continue;
+                    }
+                    long now = System.nanoTime();
+                    for (InflightPart inflight : inflights) {
+                        if (!inflight.isSpeculated() && !inflight.isDone()
+                                && now - inflight.startNanos > threshold && reserve(inflight.part)) {
+                            launch(inflight);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                // 上传结束
+            }
+        }
+
+        /**
+         * 计算判定慢分片的耗时阈值，样本不足时返回-1
+         */
+        private long threshold() {
+            // 只在检查线程中调用，没有新样本时沿用上次的结果
+            long version = latencies.version();
+            if (version == thresholdVersion) {
+                return threshold;
+            }
+            thresholdVersion = version;
+            if (latencies.size() < Math.max(1, policy.getMinSamples())) {
+                threshold = -1;
+            } else {
+                threshold = (long) (latencies.percentile(policy.getPercentile()) * policy.getMultiplier());
+            }
+            return threshold;
+        }
+
+        private boolean reserve(FilePart part) {
+            if (extraBytes + part.getDataSize() > maxExtraBytes) {
+                return false;
+            }
+            extraBytes += part.getDataSize();
+            return true;
+        }
+
+        private void launch(final InflightPart inflight) {
+            final RequestCanceller backup = newAttemptCanceller(true);
+            inflight.backup = backup;
+            policy.recordSpeculativeSend(inflight.part.getDataSize());
+            LOGGER.debug("分片耗时过长，推测重发：{}", inflight.part);
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (inflight.isDone()) {
+                            return;
+                        }
+                        sender.send(inflight.part, backup);
+                        if (inflight.complete()) {
+                            inflight.backupWon = true;
+                            cancel(inflight.primary);
+                            policy.recordSpeculativeWin();
+                            partCompleted(inflight);
+                            sender.acknowledged(inflight.part);
+                        }
+                    } catch (IOException e) {
+                        if (inflight.backupWon) {
+                            failure.compareAndSet(null, e);
+                        } else {
+                            LOGGER.debug("推测重发失败：{}", inflight.part, e);
+                        }
+                    } catch (QcloudSdkException | RuntimeException e) {
+                        LOGGER.debug("推测重发失败：{}", inflight.part, e);
+                    } finally {
+                        backup.detach();
+                        inflight.backupFinished.countDown();
+                    }
+                }
+            });
+        }
+
+        private void partCompleted(InflightPart inflight) {
+            long latency = System.nanoTime() - inflight.startNanos;
+            policy.recordPartCompleted(latency);
+            latencies.add(latency);
+        }
+
+        private void cancel(RequestCanceller attempt) {
+            if (attempt != null) {
+                attempt.cancel();
+            }
+        }
+    }
+
+    /**
+     * 发送线程领取分片的队列
+     */
+    private interface PartQueue {
+        /**
+         * 领取下一个分片
+         *
+         * @return 下一个分片，没有更多分片或上传已失败时返回null
+         * @throws InterruptedException 等待时线程被中断
+         */
+        FilePart next() throws InterruptedException;
+    }
+
+    private static class PendingQueue implements PartQueue {
+        private final Queue<FilePart> pending;
+
+        PendingQueue(List<FilePart> parts) {
+            this.pending = new ConcurrentLinkedQueue<>(parts);
+        }
+
+        @Override
+        public FilePart next() {
+            return pending.poll();
+        }
+    }
+
+    private static class PreparedQueue implements PartQueue {
+        private final BlockingQueue<FilePart> prepared;
+        private final AtomicReference<Exception> failure;
+
+        PreparedQueue(BlockingQueue<FilePart> prepared, AtomicReference<Exception> failure) {
+            this.prepared = prepared;
+            this.failure = failure;
+        }
+
+        @Override
+        public FilePart next() throws InterruptedException {
+            FilePart part;
+            do {
+                part = prepared.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+            } while (part == null && failure.get() == null);
+            if (part == END) {
+                // 放回结束标记，通知其他发送线程
+                prepared.offer(END);
+                return null;
+            }
+            return part;
+        }
+    }
+
+    private static class Producer implements Runnable {
+        private final List<FilePart> parts;
+        private final PartPreparer preparer;
+        private final BlockingQueue<FilePart> prepared;
+        private final AtomicReference<Exception> failure;
+
+        Producer(List<FilePart> parts, PartPreparer preparer, BlockingQueue<FilePart> prepared,
+                 AtomicReference<Exception> failure) {
+            this.parts = parts;
+            this.preparer = preparer;
+            this.prepared = prepared;
+            this.failure = failure;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (FilePart part : parts) {
+                    if (!put(preparer.prepare(part))) {
+                        return;
+                    }
+                }
+                put(END);
+            } catch (IOException | RuntimeException | InterruptedException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        private boolean put(FilePart part) throws InterruptedException {
+            while (!prepared.offer(part, POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+                if (failure.get() != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private class Worker implements Runnable {
+        private final PartQueue queue;
+        private final PartSender sender;
+        private final Speculator speculator;
+        private final AtomicReference<Exception> failure;
+
+        Worker(PartQueue queue, PartSender sender, Speculator speculator, AtomicReference<Exception> failure) {
+            this.queue = queue;
+            this.sender = sender;
+            this.speculator = speculator;
+            this.failure = failure;
+        }
+
+        @Override
+        public void run() {
+            try {
+                FilePart part;
+                while (failure.get() == null && (part = queue.next()) != null) {
+                    if (speculator != null) {
+                        speculator.send(part);
+                    } else {
+                        sendWithRetry(part, sender, null);
+                        sender.acknowledged(part);
+                    }
+                }
+            } catch (QcloudSdkException | IOException | RuntimeException | InterruptedException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+}
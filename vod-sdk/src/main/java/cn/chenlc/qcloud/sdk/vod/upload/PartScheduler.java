@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 上传请求调度器，在多个上传之间共享，限制同时执行的上传请求总数。
+ * <p>
+ * 请求按所属上传分组，空出名额时优先分配给正在执行请求最少的上传，相同时先到先得，
+ * 因此大文件不会占满全部连接，刚开始的小文件也能立即得到名额。线程安全。
+ * <p>
+ * 同时使用客户端在途字节预算时，必须先占用预算再获取名额，持有名额期间不能再等待预算，否则可能互相阻塞。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class PartScheduler {
+
+    private final int maxConcurrent;
+    private final Map<Object, Integer> running = new HashMap<>();
+    private final List<Waiter> waiters = new LinkedList<>();
+    private int total;
+
+    /**
+     * @param maxConcurrent 同时执行的最大请求数
+     */
+    public PartScheduler(int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive!");
+        }
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * 获取执行一个请求的名额，名额不足时阻塞
+     *
+     * @param owner 请求所属的上传，使用 equals 区分
+     * @throws InterruptedIOException 等待时线程被中断
+     */
+    public synchronized void acquire(Object owner) throws InterruptedIOException {
+        if (total < maxConcurrent && waiters.isEmpty()) {
+            grant(owner);
+            return;
+        }
+        Waiter waiter = new Waiter(owner);
+        waiters.add(waiter);
+        try {
+            while (!waiter.granted) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            if (waiter.granted) {
+                release(owner);
+            } else {
+                waiters.remove(waiter);
+            }
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Waiting for upload slot interrupted.");
+        }
+    }
+
+    /**
+     * 请求结束后归还名额
+     *
+     * @param owner 请求所属的上传
+     */
+    public synchronized void release(Object owner) {
+        Integer count = running.get(owner);
+        if (count == null) {
+            return;
+        }
+        if (count == 1) {
+            running.remove(owner);
+        } else {
+            running.put(owner, count - 1);
+        }
+        total--;
+        dispatch();
+    }
+
+    /**
+     * 正在执行的请求数
+     */
+    public synchronized int getRunning() {
+        return total;
+    }
+
+    /**
+     * 等待名额的请求数
+     */
+    public synchronized int getWaiting() {
+        return waiters.size();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    private void dispatch() {
+        boolean granted = false;
+        while (total < maxConcurrent && !waiters.isEmpty()) {
+            Waiter next = null;
+            int least = Integer.MAX_VALUE;
+            Iterator<Waiter> it = waiters.iterator();
+            while (it.hasNext()) {
+                Waiter waiter = it.next();
+                int count = runningOf(waiter.owner);
+                if (count < least) {
+                    least = count;
+                    next = waiter;
+                }
+            }
+            waiters.remove(next);
+            grant(next.owner);
+            next.granted = true;
+            granted = true;
+        }
+        if (granted) {
+            notifyAll();
+        }
+    }
+
+    private void grant(Object owner) {
+        running.put(owner, runningOf(owner) + 1);
+        total++;
+    }
+
+    private int runningOf(Object owner) {
+        Integer count = running.get(owner);
+        return count == null ? 0 : count;
+    }
+
+    private static class Waiter {
+        private final Object owner;
+        private boolean granted;
+
+        Waiter(Object owner) {
+            this.owner = owner;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+/**
+ * 分片大小选择策略，决定初始化上传时传给服务端的 dataSize
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public interface PartSizePolicy {
+
+    /** 服务端允许的最小分片大小(512KB) */
+    long MIN_PART_SIZE = 524288;
+    /** 服务端允许的最大分片大小(1MB) */
+    long MAX_PART_SIZE = 1048576;
+
+    /**
+     * 为即将上传的文件选择分片大小
+     *
+     * @param fileSize 文件大小
+     * @return 分片大小，必须在 [{@link #MIN_PART_SIZE}, {@link #MAX_PART_SIZE}] 范围内
+     */
+    long choosePartSize(long fileSize);
+
+    /**
+     * 分片上传成功后的反馈，可能被多个上传线程同时调用
+     *
+     * @param dataSize 分片大小
+     * @param elapsedNanos 分片从开始发送到服务端确认的耗时，单位纳秒
+     */
+    void onPartUploaded(long dataSize, long elapsedNanos);
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import org.apache.http.HttpEntity;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 分片数据源，按偏移和长度提供分片请求体
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public interface PartSource extends Closeable {
+
+    /**
+     * 数据总长度
+     *
+     * @return 字节数
+     */
+    long size();
+
+    /**
+     * 数据是否已全部驻留在内存中，此时发送分片不会再占用额外内存
+     *
+     * @return 数据在内存中时返回true
+     */
+    boolean isInMemory();
+
+    /**
+     * 获取指定区域的分片请求体，返回的实体必须可重复发送，且可被多个线程并发获取
+     *
+     * @param offset 区域起始偏移
+     * @param length 区域长度
+     * @return 分片请求体
+     * @throws IOException 读取数据失败时抛出
+     */
+    HttpEntity entity(long offset, long length) throws IOException;
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.vod.vo.UploadInitResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 断点续传校验，比对服务端已上传分片的MD5与本地数据，找出需要重新上传的分片。
+ * <p>
+ * 本地摘要的分片大小与服务端一致且已计算MD5时直接使用，不读取数据；否则按服务端分片区域读取数据，
+ * 分成若干组在线程池中并行计算。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class PartVerifier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartVerifier.class);
+
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    /**
+     * @param executor 计算MD5的线程池
+     * @param parallelism 并行计算的分组数
+     */
+    public PartVerifier(ExecutorService executor, int parallelism) {
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * 找出MD5与本地数据不一致的服务端分片，未返回MD5的分片不做校验
+     *
+     * @param source 本地数据源
+     * @param digest 本地摘要
+     * @param dataSize 服务端记录的分片大小，小于等于0时使用本地摘要的分片大小
+     * @param uploadedParts 服务端已有的分片，可以为null
+     * @return 按偏移升序排列、带本地MD5的不一致分片
+     * @throws IOException 读取数据失败或线程被中断时抛出
+     */
+    public List<FilePart> findMismatches(PartSource source, FileDigest digest, long dataSize,
+                                         List<UploadInitResponse.PartInfo> uploadedParts) throws IOException {
+        return findMismatches(source, digest, dataSize, uploadedParts, null);
+    }
+
+    /**
+     * 找出MD5与本地数据不一致的服务端分片，未返回MD5的分片不做校验。
+     * 本地记录已确认、且服务端同样列出的分片由本次上传发送并得到确认，本地摘要没有其MD5时不再读取数据校验
+     *
+     * @param source 本地数据源
+     * @param digest 本地摘要
+     * @param dataSize 服务端记录的分片大小，小于等于0时使用本地摘要的分片大小
+     * @param uploadedParts 服务端已有的分片，可以为null
+     * @param acknowledged 本地记录的已确认分片偏移，仅在分片大小一致时生效，可以为null
+     * @return 按偏移升序排列、带本地MD5的不一致分片
+     * @throws IOException 读取数据失败或线程被中断时抛出
+     */
+    public List<FilePart> findMismatches(final PartSource source, FileDigest digest, long dataSize,
+                                         List<UploadInitResponse.PartInfo> uploadedParts,
+                                         Collection<Long> acknowledged) throws IOException {
+        List<FilePart> mismatches = new ArrayList<>();
+        if (uploadedParts == null || uploadedParts.isEmpty()) {
+            return mismatches;
+        }
+        if (dataSize <= 0) {
+            dataSize = digest.getDataSize();
+        }
+        boolean sameDataSize = dataSize == digest.getDataSize();
+
+        final List<UploadInitResponse.PartInfo> toCompute = new ArrayList<>();
+        for (UploadInitResponse.PartInfo part : uploadedParts) {
+            if (part.getDataMd5() == null) {
+                continue;
+            }
+            FilePart local = sameDataSize ? digest.getParts().get((int) (part.getOffset() / dataSize)) : null;
+            if (local != null && local.getDataMd5() != null) {
+                if (!part.getDataMd5().equalsIgnoreCase(local.getDataMd5())) {
+                    mismatches.add(local);
+                }
+            } else if (!sameDataSize || acknowledged == null || !acknowledged.contains(part.getOffset())) {
+                toCompute.add(part);
+            }
+        }
+
+        if (!toCompute.isEmpty()) {
+            int groups = Math.min(parallelism, toCompute.size());
+            List<Future<List<FilePart>>> futures = new ArrayList<>(groups);
+            for (int g = 0; g < groups; g++) {
+                final int group = g;
+                final int groupCount = groups;
+                futures.add(executor.submit(new Callable<List<FilePart>>() {
+                    @Override
+                    public List<FilePart> call() throws IOException {
+                        List<FilePart> result = new ArrayList<>();
+                        for (int i = group; i < toCompute.size(); i += groupCount) {
+                            UploadInitResponse.PartInfo part = toCompute.get(i);
+                            String localMd5 = FileDigest.md5Hex(source.entity(part.getOffset(), part.getDataSize()));
+                            if (!part.getDataMd5().equalsIgnoreCase(localMd5)) {
+                                result.add(new FilePart(part.getOffset(), part.getDataSize(), localMd5));
+                            }
+                        }
+                        return result;
+                    }
+                }));
+            }
+            try {
+                for (Future<List<FilePart>> future : futures) {
+                    mismatches.addAll(future.get());
+                }
+            } catch (InterruptedException e) {
+                for (Future<List<FilePart>> future : futures) {
+                    future.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Part verification interrupted.");
+            } catch (ExecutionException e) {
+                for (Future<List<FilePart>> future : futures) {
+                    future.cancel(true);
+                }
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+
+        if (!mismatches.isEmpty()) {
+            LOGGER.warn("服务端有 [{}] 个分片与本地数据不一致，将重新上传", mismatches.size());
+        }
+        Collections.sort(mismatches, FilePart.OFFSET_ORDER);
+        return mismatches;
+    }
+}
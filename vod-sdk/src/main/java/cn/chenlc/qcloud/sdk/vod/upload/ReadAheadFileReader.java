@@ -0,0 +1,162 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * 预读文件读取器，通过 {@link AsynchronousFileChannel} 同时保持多个大块读取在进行中，
+ * 按文件顺序把数据交给调用方处理。
+ * <p>
+ * 顺序的小块阻塞读取在网络存储和机械硬盘上受单次读取延迟限制，预读使处理当前块的同时后续块已在读取，
+ * 适用于计算大文件摘要等一次顺序扫描的场景。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class ReadAheadFileReader {
+
+    /** 默认单次读取大小 */
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+    /** 默认同时进行中的读取数 */
+    public static final int DEFAULT_READ_AHEAD = 4;
+
+    /**
+     * 按文件顺序接收数据块
+     */
+    public interface BlockHandler {
+        /**
+         * 处理一块数据，返回后缓冲区会被复用
+         *
+         * @param data 数据
+         * @param off 起始位置
+         * @param len 长度
+         * @throws IOException 处理失败时抛出，读取随即终止
+         */
+        void handle(byte[] data, int off, int len) throws IOException;
+    }
+
+    private final int bufferSize;
+    private final int readAhead;
+
+    public ReadAheadFileReader() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_READ_AHEAD);
+    }
+
+    /**
+     * @param bufferSize 单次读取大小
+     * @param readAhead 同时进行中的读取数，内存占用为 bufferSize * readAhead
+     */
+    public ReadAheadFileReader(int bufferSize, int readAhead) {
+        if (bufferSize <= 0 || readAhead <= 0) {
+            throw new IllegalArgumentException("bufferSize and readAhead must be positive!");
+        }
+        this.bufferSize = bufferSize;
+        this.readAhead = readAhead;
+    }
+
+    /**
+     * 从头到尾读取文件，按顺序把每一块交给 handler
+     *
+     * @param file 要读取的文件
+     * @param handler 数据处理逻辑
+     * @return 读取的总字节数
+     * @throws IOException 读取失败、处理失败或线程被中断时抛出
+     */
+    public long read(File file, BlockHandler handler) throws IOException {
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            Deque<PendingRead> pending = new ArrayDeque<>(readAhead);
+            long next = 0;
+            while (next < size && pending.size() < readAhead) {
+                pending.add(new PendingRead(channel, ByteBuffer.allocate(bufferSize), next, size));
+                next += bufferSize;
+            }
+
+            long total = 0;
+            while (!pending.isEmpty()) {
+                PendingRead read = pending.poll();
+                ByteBuffer buffer = read.await();
+                handler.handle(buffer.array(), 0, buffer.position());
+                total += buffer.position();
+                if (next < size) {
+                    pending.add(new PendingRead(channel, buffer, next, size));
+                    next += bufferSize;
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * 一次进行中的异步读取，目标区域为 [position, min(position + capacity, size))
+     */
+    private static class PendingRead {
+        private final AsynchronousFileChannel channel;
+        private final ByteBuffer buffer;
+        private final long position;
+        private Future<Integer> future;
+
+        PendingRead(AsynchronousFileChannel channel, ByteBuffer buffer, long position, long size) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.position = position;
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), size - position));
+            this.future = channel.read(buffer, position);
+        }
+
+        /**
+         * 等待读取完成，读取不足时继续读取剩余部分
+         *
+         * @return 已填满目标区域的缓冲区
+         */
+        ByteBuffer await() throws IOException {
+            while (true) {
+                int n;
+                try {
+                    n = future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Read interrupted.");
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    throw new IOException(cause);
+                }
+                if (n < 0 || !buffer.hasRemaining()) {
+                    // 文件在读取过程中被截断时 n 为 -1，此时按实际读到的数据返回
+                    return buffer;
+                }
+                future = channel.read(buffer, position + buffer.position());
+            }
+        }
+    }
+}
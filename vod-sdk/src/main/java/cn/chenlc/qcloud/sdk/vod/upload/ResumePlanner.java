@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.common.exceptions.ParamException;
+import cn.chenlc.qcloud.sdk.vod.vo.UploadInitResponse;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 断点续传规划，根据服务端返回的已上传分片列表，计算仍需上传的分片
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class ResumePlanner {
+
+    private ResumePlanner() {
+    }
+
+    /**
+     * 计算缺失的分片。分片按服务端记录的分片大小对齐，最后一个分片可以小于分片大小；
+     * 本地摘要的分片大小与服务端一致时，缺失分片直接带上本地摘要中的MD5。
+     * 以服务端列表为准，本地记录已确认但服务端没有的分片（如服务端会话已过期清理）同样视为缺失
+     *
+     * @param digest 本地文件摘要
+     * @param dataSize 服务端记录的分片大小，小于等于0时使用本地摘要的分片大小
+     * @param uploadedParts 服务端已有的分片，可以为null
+     * @return 按偏移升序排列的缺失分片
+     * @throws ParamException 服务端分片与文件不匹配时抛出
+     */
+    public static List<FilePart> plan(FileDigest digest, long dataSize,
+                                      List<UploadInitResponse.PartInfo> uploadedParts) throws ParamException {
+        long fileSize = digest.getFileSize();
+        if (dataSize <= 0) {
+            dataSize = digest.getDataSize();
+        }
+        boolean sameDataSize = dataSize == digest.getDataSize();
+
+        Set<Long> uploaded = new HashSet<>();
+        if (uploadedParts != null) {
+            for (UploadInitResponse.PartInfo part : uploadedParts) {
+                long offset = part.getOffset();
+                if (offset % dataSize != 0 || offset >= fileSize
+                        || part.getDataSize() != Math.min(dataSize, fileSize - offset)) {
+                    throw new ParamException("Data size of part is wrong!");
+                }
+                uploaded.add(offset);
+            }
+        }
+
+        List<FilePart> missing = new ArrayList<>();
+        List<FilePart> localParts = digest.getParts();
+        int index = 0;
+        for (long offset = 0; offset < fileSize; offset += dataSize, index++) {
+            if (uploaded.contains(offset)) {
+                continue;
+            }
+            if (sameDataSize) {
+                missing.add(localParts.get(index));
+            } else {
+                missing.add(new FilePart(offset, Math.min(dataSize, fileSize - offset)));
+            }
+        }
+        return missing;
+    }
+}
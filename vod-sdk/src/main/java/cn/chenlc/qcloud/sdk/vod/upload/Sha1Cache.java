@@ -0,0 +1,221 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 文件SHA-1持久化缓存，以文件路径、大小、修改时间和inode标识文件，文件未变化时无需重新计算SHA。
+ * <p>
+ * 缓存文件每行记录一个文件：SHA、大小、修改时间、inode、路径，以制表符分隔。更新时追加新行，
+ * 加载时后出现的行覆盖先出现的行，过期行超过有效行数或最后一行不完整时重写缓存文件。线程安全。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class Sha1Cache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Sha1Cache.class);
+
+    private static final String SEPARATOR = "\t";
+
+    private final File cacheFile;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private int lineCount;
+
+    public Sha1Cache(File cacheFile) throws IOException {
+        this.cacheFile = cacheFile;
+        if (load() || lineCount > entries.size() * 2) {
+            compact();
+        }
+    }
+
+    /**
+     * 查询文件的SHA
+     *
+     * @param file 文件
+     * @return 文件未变化时返回缓存的SHA，否则返回null
+     * @throws IOException 读取文件属性失败时抛出
+     */
+    public synchronized String get(File file) throws IOException {
+        Entry entry = entries.get(file.getAbsolutePath());
+        if (entry == null) {
+            return null;
+        }
+        Entry current = identify(file, entry.sha);
+        return entry.sameFile(current) ? entry.sha : null;
+    }
+
+    /**
+     * 读取文件当前的属性作为文件标识，必须在计算SHA之前调用，并在计算完成后传给 {@link #put(File, String, Entry)}
+     *
+     * @param file 文件
+     * @return 文件标识
+     * @throws IOException 读取文件属性失败时抛出
+     */
+    public Entry identify(File file) throws IOException {
+        return identify(file, null);
+    }
+
+    /**
+     * 记录文件的SHA，以计算前的文件属性作为文件标识。计算期间文件属性发生变化时不记录，避免新属性对应旧内容的SHA
+     *
+     * @param file 文件
+     * @param sha 文件SHA
+     * @param identity 计算SHA之前通过 {@link #identify(File)} 得到的文件标识
+     * @return 是否已记录
+     * @throws IOException 读取文件属性或写缓存文件失败时抛出
+     */
+    public synchronized boolean put(File file, String sha, Entry identity) throws IOException {
+        Entry entry = identify(file, sha);
+        if (!entry.sameFile(identity)) {
+            LOGGER.debug("文件在计算SHA期间被修改，不记录：{}", file);
+            return false;
+        }
+        Entry old = entries.put(entry.path, entry);
+        if (entry.sameFile(old) && sha.equals(old.sha)) {
+            return true;
+        }
+        File parent = cacheFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Can not create directory: " + parent);
+        }
+        try (OutputStream out = new FileOutputStream(cacheFile, true)) {
+            out.write(entry.toLine().getBytes(StandardCharsets.UTF_8));
+        }
+        lineCount++;
+        return true;
+    }
+
+    /**
+     * 加载缓存文件
+     *
+     * @return 最后一行不完整时返回true
+     */
+    private boolean load() throws IOException {
+        if (!cacheFile.isFile()) {
+            return false;
+        }
+        boolean terminated = endsWithNewline(cacheFile);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(cacheFile), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while (line != null) {
+                String next = reader.readLine();
+                if (next == null && !terminated) {
+                    // 写入时进程崩溃，最后一行只写了一半，后续追加会与之拼成一行
+                    LOGGER.info("丢弃SHA缓存末尾不完整的行：{}", line);
+                    return true;
+                }
+                lineCount++;
+                parseLine(line);
+                line = next;
+            }
+        }
+        return false;
+    }
+
+    private void parseLine(String line) {
+        String[] fields = line.split(SEPARATOR, 5);
+        if (fields.length != 5) {
+            return;
+        }
+        try {
+            Entry entry = new Entry(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+                    fields[3], fields[4]);
+            entries.put(entry.path, entry);
+        } catch (NumberFormatException e) {
+            LOGGER.debug("忽略无法解析的SHA缓存行：{}", line);
+        }
+    }
+
+    private static boolean endsWithNewline(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long length = raf.length();
+            if (length == 0) {
+                return true;
+            }
+            raf.seek(length - 1);
+            return raf.read() == '\n';
+        }
+    }
+
+    private void compact() throws IOException {
+        File tmp = new File(cacheFile.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            for (Entry entry : entries.values()) {
+                out.write(entry.toLine().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        // 原子替换，压缩过程中出错不会丢失缓存
+        Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        lineCount = entries.size();
+    }
+
+    private static Entry identify(File file, String sha) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        Object fileKey = attrs.fileKey();
+        return new Entry(sha, attrs.size(), attrs.lastModifiedTime().toMillis(),
+                fileKey == null ? "-" : fileKey.toString(), file.getAbsolutePath());
+    }
+
+    /**
+     * 缓存记录，同时用作文件标识：路径、大小、修改时间和inode
+     */
+    public static final class Entry {
+        private final String sha;
+        private final long size;
+        private final long mtime;
+        private final String inode;
+        private final String path;
+
+        Entry(String sha, long size, long mtime, String inode, String path) {
+            this.sha = sha;
+            this.size = size;
+            this.mtime = mtime;
+            this.inode = inode;
+            this.path = path;
+        }
+
+        boolean sameFile(Entry other) {
+            return other != null && size == other.size && mtime == other.mtime
+                    && inode.equals(other.inode) && path.equals(other.path);
+        }
+
+        String toLine() {
+            return sha + SEPARATOR + size + SEPARATOR + mtime + SEPARATOR + inode + SEPARATOR + path + "\n";
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 慢分片推测重发策略及其统计。
+ * <p>
+ * 并发上传时，某个分片的耗时超过最近分片耗时的 percentile 分位数乘以 multiplier 后，
+ * 在另一个连接上重复发送该分片，先完成者生效，另一个随即被中止。
+ * 每次上传重复发送的字节数不超过分片总字节数的 maxExtraRatio。
+ * <p>
+ * 同一实例可在多次上传间共享，统计数据跨上传累计。线程安全。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class SpeculativeResendPolicy {
+
+    /** 统计分片耗时分布时保留的最近样本数 */
+    static final int LATENCY_SAMPLES = 256;
+
+    private volatile double percentile = 0.9;
+    private volatile double multiplier = 1.5;
+    private volatile int minSamples = 8;
+    private volatile double maxExtraRatio = 0.1;
+    private volatile long checkIntervalMillis = 100;
+
+    private final AtomicLong speculativeSends = new AtomicLong();
+    private final AtomicLong speculativeWins = new AtomicLong();
+    private final AtomicLong extraBytes = new AtomicLong();
+    private final AtomicLong completedParts = new AtomicLong();
+    private final LatencyWindow latencies = new LatencyWindow(LATENCY_SAMPLES);
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * @param percentile 判定慢分片所参考的耗时分位数，取值 (0, 1]，默认0.9
+     */
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * @param multiplier 分位数耗时的倍数，超过该耗时的分片视为慢分片，默认1.5
+     */
+    public void setMultiplier(double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    /**
+     * @param minSamples 本次上传完成的分片数达到该值后才开始推测重发，默认8
+     */
+    public void setMinSamples(int minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public double getMaxExtraRatio() {
+        return maxExtraRatio;
+    }
+
+    /**
+     * @param maxExtraRatio 每次上传重复发送的字节数占分片总字节数的上限，默认0.1
+     */
+    public void setMaxExtraRatio(double maxExtraRatio) {
+        this.maxExtraRatio = maxExtraRatio;
+    }
+
+    public long getCheckIntervalMillis() {
+        return checkIntervalMillis;
+    }
+
+    /**
+     * @param checkIntervalMillis 检查慢分片的间隔，单位毫秒，默认100
+     */
+    public void setCheckIntervalMillis(long checkIntervalMillis) {
+        this.checkIntervalMillis = checkIntervalMillis;
+    }
+
+    /**
+     * 已发起的推测重发次数
+     */
+    public long getSpeculativeSends() {
+        return speculativeSends.get();
+    }
+
+    /**
+     * 推测重发先于原请求完成的次数
+     */
+    public long getSpeculativeWins() {
+        return speculativeWins.get();
+    }
+
+    /**
+     * 推测重发额外发送的分片字节数
+     */
+    public long getExtraBytes() {
+        return extraBytes.get();
+    }
+
+    /**
+     * 已完成的分片数
+     */
+    public long getCompletedParts() {
+        return completedParts.get();
+    }
+
+    /**
+     * 最近完成的分片从开始发送到完成的耗时分位数，包含推测重发的效果，可用于观察尾延迟
+     *
+     * @param p 分位数，取值 (0, 1]
+     * @return 耗时，单位毫秒，没有样本时返回-1
+     */
+    public long getPartLatencyMillis(double p) {
+        long latency = latencies.percentile(p);
+        return latency < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(latency);
+    }
+
+    void recordSpeculativeSend(long bytes) {
+        speculativeSends.incrementAndGet();
+        extraBytes.addAndGet(bytes);
+    }
+
+    void recordSpeculativeWin() {
+        speculativeWins.incrementAndGet();
+    }
+
+    void recordPartCompleted(long latencyNanos) {
+        completedParts.incrementAndGet();
+        latencies.add(latencyNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "SpeculativeResendPolicy{sends=" + speculativeSends + ", wins=" + speculativeWins
+                + ", extraBytes=" + extraBytes + ", p99=" + getPartLatencyMillis(0.99) + "ms}";
+    }
+}
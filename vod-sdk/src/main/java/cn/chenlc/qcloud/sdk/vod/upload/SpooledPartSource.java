@@ -0,0 +1,233 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.common.http.ByteBufferEntity;
+import cn.chenlc.qcloud.sdk.common.http.DirectBufferPool;
+import org.apache.http.HttpEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 将数据流暂存后作为分片数据源，暂存过程中同步计算SHA-1和各分片MD5。
+ * <p>
+ * 初始化上传需要预先知道文件SHA和大小，因此数据流必须先完整读取一遍。
+ * 数据不超过内存阈值时全部保存在从 {@link DirectBufferPool} 申请的直接缓冲区中，不产生任何磁盘读写，
+ * 分片请求体直接引用缓冲区，关闭时缓冲区归还到池中复用；超过阈值后转存到临时文件，
+ * 摘要在写入临时文件的同时算出，上传阶段只需再顺序读取临时文件一次。关闭时删除临时文件。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class SpooledPartSource implements PartSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpooledPartSource.class);
+
+    /** 读取数据流时使用的缓冲区大小 */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileDigest digest;
+    private final DirectBufferPool pool;
+    private final List<ByteBuffer> chunks;
+    private final File spillFile;
+    private final FileChannelPartSource fileSource;
+
+    private SpooledPartSource(FileDigest digest, DirectBufferPool pool, List<ByteBuffer> chunks, File spillFile)
+            throws IOException {
+        this.digest = digest;
+        this.pool = pool;
+        this.chunks = chunks;
+        this.spillFile = spillFile;
+        this.fileSource = spillFile == null ? null : new FileChannelPartSource(spillFile);
+    }
+
+    /**
+     * 读取数据流直到结束并暂存，内存缓冲区不复用，不负责关闭数据流
+     *
+     * @param in 数据流
+     * @param dataSize 分片大小
+     * @param memoryThreshold 内存中暂存的最大字节数，超出后转存到临时文件
+     * @return 暂存后的分片数据源
+     * @throws IOException 读取数据流或写临时文件失败时抛出
+     */
+    public static SpooledPartSource spool(InputStream in, long dataSize, int memoryThreshold) throws IOException {
+        return spool(in, dataSize, memoryThreshold, new DirectBufferPool((int) PartSizePolicy.MAX_PART_SIZE, 0));
+    }
+
+    /**
+     * 读取数据流直到结束并暂存，内存数据保存在从缓冲区池申请的缓冲区中，不负责关闭数据流
+     *
+     * @param in 数据流
+     * @param dataSize 分片大小
+     * @param memoryThreshold 内存中暂存的最大字节数，超出后转存到临时文件
+     * @param pool 缓冲区池
+     * @return 暂存后的分片数据源
+     * @throws IOException 读取数据流或写临时文件失败时抛出
+     */
+    public static SpooledPartSource spool(InputStream in, long dataSize, int memoryThreshold, DirectBufferPool pool)
+            throws IOException {
+        FileDigest.Builder builder = new FileDigest.Builder(dataSize);
+        List<ByteBuffer> chunks = new ArrayList<>();
+        long count = 0;
+        File spillFile = null;
+        FileChannel out = null;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try {
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                builder.update(buffer, 0, len);
+                if (out == null && count + len <= memoryThreshold) {
+                    append(chunks, pool, buffer, len);
+                    count += len;
+                    continue;
+                }
+                if (out == null) {
+                    spillFile = File.createTempFile("vod-upload-", ".spool");
+                    LOGGER.debug("数据流超过内存阈值 [{}]，转存到临时文件 [{}]", memoryThreshold, spillFile);
+                    out = FileChannel.open(spillFile.toPath(), StandardOpenOption.WRITE);
+                    for (ByteBuffer chunk : chunks) {
+                        writeFully(out, (ByteBuffer) chunk.duplicate().flip());
+                    }
+                    releaseAll(chunks, pool);
+                }
+                writeFully(out, ByteBuffer.wrap(buffer, 0, len));
+            }
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+            for (ByteBuffer chunk : chunks) {
+                chunk.flip();
+            }
+            return new SpooledPartSource(builder.build(), pool, chunks, spillFile);
+        } catch (IOException | RuntimeException e) {
+            releaseAll(chunks, pool);
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {
+                }
+            }
+            if (spillFile != null && !spillFile.delete()) {
+                LOGGER.warn("删除临时文件失败：{}", spillFile);
+            }
+            throw e;
+        }
+    }
+
+    private static void append(List<ByteBuffer> chunks, DirectBufferPool pool, byte[] data, int len) {
+        int pos = 0;
+        while (pos < len) {
+            ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+            if (chunk == null || !chunk.hasRemaining()) {
+                chunk = pool.acquire();
+                chunks.add(chunk);
+            }
+            int n = Math.min(len - pos, chunk.remaining());
+            chunk.put(data, pos, n);
+            pos += n;
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            out.write(src);
+        }
+    }
+
+    private static void releaseAll(List<ByteBuffer> chunks, DirectBufferPool pool) {
+        for (ByteBuffer chunk : chunks) {
+            pool.release(chunk);
+        }
+        chunks.clear();
+    }
+
+    /**
+     * 获取暂存数据的摘要
+     *
+     * @return 数据摘要
+     */
+    public FileDigest getDigest() {
+        return digest;
+    }
+
+    /**
+     * 数据是否已转存到临时文件
+     *
+     * @return 转存到临时文件时返回true
+     */
+    public boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    @Override
+    public long size() {
+        return digest.getFileSize();
+    }
+
+    @Override
+    public boolean isInMemory() {
+        return spillFile == null;
+    }
+
+    @Override
+    public HttpEntity entity(long offset, long length) throws IOException {
+        if (fileSource != null) {
+            return fileSource.entity(offset, length);
+        }
+        // 分片可能跨越多个缓冲区，按区域截取各缓冲区的视图
+        int chunkSize = pool.getBufferSize();
+        List<ByteBuffer> views = new ArrayList<>(2);
+        long pos = offset;
+        long end = offset + length;
+        while (pos < end) {
+            ByteBuffer view = chunks.get((int) (pos / chunkSize)).duplicate();
+            int start = (int) (pos % chunkSize);
+            int n = (int) Math.min(end - pos, view.limit() - start);
+            if (n <= 0) {
+                throw new IOException("Region out of range: offset=" + offset + ", length=" + length);
+            }
+            view.position(start);
+            view.limit(start + n);
+            views.add(view);
+            pos += n;
+        }
+        return new ByteBufferEntity(views.toArray(new ByteBuffer[views.size()]));
+    }
+
+    @Override
+    public void close() throws IOException {
+        releaseAll(chunks, pool);
+        if (fileSource != null) {
+            fileSource.close();
+            if (!spillFile.delete()) {
+                LOGGER.warn("删除临时文件失败：{}", spillFile);
+            }
+        }
+    }
+}
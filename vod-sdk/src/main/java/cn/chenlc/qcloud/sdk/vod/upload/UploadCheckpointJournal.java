@@ -0,0 +1,304 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 本地上传断点日志，进程重启后无需重新计算文件摘要即可继续上传。
+ * <p>
+ * 每个上传中的文件对应目录下一个以文件SHA命名的日志文件：第一行记录文件路径、大小、修改时间、SHA、分片大小和各分片MD5，
+ * 之后每行追加一个已被服务端确认的分片偏移。文件的路径、大小或修改时间发生变化时，日志视为失效。
+ * 上传完成后日志文件被删除。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class UploadCheckpointJournal {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UploadCheckpointJournal.class);
+
+    private static final String SUFFIX = ".journal";
+
+    private static final class KEYS {
+        private static final String PATH = "path";
+        private static final String SIZE = "size";
+        private static final String MTIME = "mtime";
+        private static final String FILE_SHA = "fileSha";
+        private static final String DATA_SIZE = "dataSize";
+        private static final String PART_MD5S = "partMd5s";
+    }
+
+    private final File dir;
+
+    public UploadCheckpointJournal(File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Can not create checkpoint directory: " + dir);
+        }
+        this.dir = dir;
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    /**
+     * 查找文件对应的有效断点
+     *
+     * @param file 要上传的文件
+     * @return 断点，不存在或文件已变化时返回null
+     * @throws IOException 读取日志失败时抛出
+     */
+    public Checkpoint load(File file) throws IOException {
+        String path = file.getAbsolutePath();
+        File[] journals = dir.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File f) {
+                return f.isFile() && f.getName().endsWith(SUFFIX);
+            }
+        });
+        if (journals == null) {
+            return null;
+        }
+        for (File journalFile : journals) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(journalFile), StandardCharsets.UTF_8))) {
+                String headerLine = reader.readLine();
+                if (headerLine == null) {
+                    continue;
+                }
+                JSONObject header;
+                try {
+                    header = JSON.parseObject(headerLine);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("断点日志已损坏，忽略：{}", journalFile);
+                    continue;
+                }
+                if (!path.equals(header.getString(KEYS.PATH))) {
+                    continue;
+                }
+                if (header.getLongValue(KEYS.SIZE) != file.length()
+                        || header.getLongValue(KEYS.MTIME) != file.lastModified()) {
+                    LOGGER.info("文件 [{}] 在上次上传后已修改，丢弃断点", path);
+                    delete(journalFile);
+                    return null;
+                }
+
+                FileDigest digest = toDigest(header);
+                Set<Long> acknowledged = new HashSet<>();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // 进程崩溃时最后一行可能只写了一半，非分片边界的偏移一律丢弃
+                    long offset;
+                    try {
+                        offset = Long.parseLong(line.trim());
+                    } catch (NumberFormatException e) {
+                        break;
+                    }
+                    if (offset % digest.getDataSize() != 0 || offset >= digest.getFileSize()) {
+                        break;
+                    }
+                    acknowledged.add(offset);
+                }
+                return new Checkpoint(journalFile, digest, acknowledged);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 为文件创建新的断点，覆盖同一SHA已存在的日志
+     *
+     * @param file 要上传的文件
+     * @param digest 文件摘要
+     * @return 断点
+     * @throws IOException 写日志失败时抛出
+     */
+    public Checkpoint create(File file, FileDigest digest) throws IOException {
+        JSONObject header = new JSONObject(true);
+        header.put(KEYS.PATH, file.getAbsolutePath());
+        header.put(KEYS.SIZE, file.length());
+        header.put(KEYS.MTIME, file.lastModified());
+        header.put(KEYS.FILE_SHA, digest.getFileSha());
+        header.put(KEYS.DATA_SIZE, digest.getDataSize());
+        JSONArray md5s = new JSONArray(digest.getParts().size());
+        for (FilePart part : digest.getParts()) {
+            md5s.add(part.getDataMd5());
+        }
+        header.put(KEYS.PART_MD5S, md5s);
+
+        File journalFile = new File(dir, digest.getFileSha() + SUFFIX);
+        File tmp = new File(dir, digest.getFileSha() + SUFFIX + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            out.write(header.toJSONString().getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+            out.getChannel().force(true);
+        }
+        if (journalFile.exists()) {
+            delete(journalFile);
+        }
+        if (!tmp.renameTo(journalFile)) {
+            throw new IOException("Can not create checkpoint journal: " + journalFile);
+        }
+        return new Checkpoint(journalFile, digest, new HashSet<Long>());
+    }
+
+    private static FileDigest toDigest(JSONObject header) {
+        long fileSize = header.getLongValue(KEYS.SIZE);
+        long dataSize = header.getLongValue(KEYS.DATA_SIZE);
+        JSONArray md5s = header.getJSONArray(KEYS.PART_MD5S);
+        List<FilePart> parts = new ArrayList<>(md5s.size());
+        for (int i = 0; i < md5s.size(); i++) {
+            long offset = i * dataSize;
+            parts.add(new FilePart(offset, Math.min(dataSize, fileSize - offset), md5s.getString(i)));
+        }
+        return new FileDigest(header.getString(KEYS.FILE_SHA), fileSize, dataSize, parts);
+    }
+
+    private static void delete(File file) {
+        if (file.exists() && !file.delete()) {
+            LOGGER.warn("删除断点日志失败：{}", file);
+        }
+    }
+
+    /**
+     * 单个文件的上传断点，可被多个上传线程同时记录
+     */
+    public static class Checkpoint implements Closeable {
+        private final File journalFile;
+        private final FileDigest digest;
+        private final Set<Long> acknowledged;
+        private FileOutputStream out;
+
+        Checkpoint(File journalFile, FileDigest digest, Set<Long> acknowledged) {
+            this.journalFile = journalFile;
+            this.digest = digest;
+            this.acknowledged = acknowledged;
+        }
+
+        /**
+         * 获取记录的文件摘要
+         *
+         * @return 文件摘要
+         */
+        public FileDigest getDigest() {
+            return digest;
+        }
+
+        /**
+         * 分片是否已被服务端确认
+         *
+         * @param offset 分片偏移
+         * @return 已确认时返回true
+         */
+        public synchronized boolean isAcknowledged(long offset) {
+            return acknowledged.contains(offset);
+        }
+
+        /**
+         * 获取已确认的分片偏移
+         *
+         * @return 分片偏移集合的副本
+         */
+        public synchronized Set<Long> getAcknowledged() {
+            return new HashSet<>(acknowledged);
+        }
+
+        /**
+         * 记录分片已被服务端确认，写入并刷盘后返回
+         *
+         * @param part 已确认的分片
+         * @throws IOException 写日志失败时抛出
+         */
+        public synchronized void acknowledge(FilePart part) throws IOException {
+            if (!acknowledged.add(part.getOffset())) {
+                return;
+            }
+            if (out == null) {
+                out = new FileOutputStream(journalFile, true);
+            }
+            out.write((part.getOffset() + "\n").getBytes(StandardCharsets.UTF_8));
+            out.getChannel().force(false);
+        }
+
+        /**
+         * 清空已确认的分片记录，服务端没有该文件的上传记录时使用
+         *
+         * @throws IOException 重写日志失败时抛出
+         */
+        public synchronized void reset() throws IOException {
+            if (acknowledged.isEmpty()) {
+                return;
+            }
+            close();
+            acknowledged.clear();
+            String header;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(journalFile), StandardCharsets.UTF_8))) {
+                header = reader.readLine();
+            }
+            try (FileOutputStream rewrite = new FileOutputStream(journalFile)) {
+                rewrite.write((header + "\n").getBytes(StandardCharsets.UTF_8));
+                rewrite.getChannel().force(true);
+            }
+        }
+
+        /**
+         * 上传完成，删除日志
+         */
+        public synchronized void complete() {
+            try {
+                close();
+            } catch (IOException e) {
+                LOGGER.warn("关闭断点日志失败：{}", journalFile, e);
+            }
+            delete(journalFile);
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Checkpoint{" + journalFile + "}";
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.common.exceptions.CancelledException;
+import cn.chenlc.qcloud.sdk.common.exceptions.QcloudSdkException;
+import cn.chenlc.qcloud.sdk.common.http.RequestCanceller;
+import cn.chenlc.qcloud.sdk.vod.vo.UploadSuccessResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 上传控制句柄，可暂停、恢复或取消一次正在进行的上传。
+ * <p>
+ * 暂停后正在发送的分片继续完成，之后不再发送新的分片，直到恢复；恢复后从已确认的分片之后继续。
+ * 取消立即中止所有正在执行的请求并释放其连接，上传以 {@link CancelledException} 结束；
+ * 设置了断点日志目录时，已确认的分片仍保留在日志中，之后重新上传同一文件可直接续传。线程安全。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class UploadHandle {
+
+    private final RequestCanceller canceller = new RequestCanceller();
+    private final CountDownLatch done = new CountDownLatch(1);
+    private boolean paused;
+    private volatile UploadSuccessResponse response;
+    private volatile Exception failure;
+
+    /**
+     * 暂停上传，正在发送的分片不受影响
+     */
+    public synchronized void pause() {
+        if (!canceller.isCancelled()) {
+            paused = true;
+        }
+    }
+
+    /**
+     * 恢复已暂停的上传
+     */
+    public synchronized void resume() {
+        paused = false;
+        notifyAll();
+    }
+
+    /**
+     * 取消上传，立即中止正在执行的请求
+     */
+    public void cancel() {
+        canceller.cancel();
+        synchronized (this) {
+            paused = false;
+            notifyAll();
+        }
+    }
+
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    public boolean isCancelled() {
+        return canceller.isCancelled();
+    }
+
+    /**
+     * 上传是否已结束，包括成功、失败和取消
+     *
+     * @return 已结束时返回true
+     */
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    /**
+     * 等待上传结束并获取结果
+     *
+     * @return 上传结果
+     * @throws QcloudSdkException 上传失败或被取消时抛出
+     * @throws IOException 读取文件失败或等待时线程被中断时抛出
+     */
+    public UploadSuccessResponse get() throws QcloudSdkException, IOException {
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Waiting for upload interrupted.");
+        }
+        Exception e = failure;
+        if (e == null) {
+            return response;
+        }
+        if (e instanceof QcloudSdkException) {
+            throw (QcloudSdkException) e;
+        }
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        }
+        throw (RuntimeException) e;
+    }
+
+    /**
+     * 暂停时阻塞直到恢复，由上传流程在发送每个请求前调用
+     *
+     * @throws CancelledException 上传已取消时抛出
+     * @throws InterruptedIOException 等待时线程被中断
+     */
+    public void awaitRunnable() throws CancelledException, InterruptedIOException {
+        synchronized (this) {
+            try {
+                while (paused) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Waiting for resume interrupted.");
+            }
+        }
+        if (canceller.isCancelled()) {
+            throw new CancelledException("Upload cancelled.");
+        }
+    }
+
+    /**
+     * 获取请求取消器，上传流程发出的请求需登记到该取消器
+     *
+     * @return 请求取消器
+     */
+    public RequestCanceller getCanceller() {
+        return canceller;
+    }
+
+    /**
+     * 记录上传成功，由上传流程调用
+     *
+     * @param response 上传结果
+     */
+    public void complete(UploadSuccessResponse response) {
+        this.response = response;
+        done.countDown();
+    }
+
+    /**
+     * 记录上传失败，由上传流程调用
+     *
+     * @param failure 失败原因
+     */
+    public void fail(Exception failure) {
+        this.failure = failure;
+        done.countDown();
+    }
+}
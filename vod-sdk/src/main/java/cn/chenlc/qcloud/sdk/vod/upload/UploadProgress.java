@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+/**
+ * 某一时刻的上传进度快照，包含聚合后的吞吐量
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class UploadProgress {
+
+    private final long totalBytes;
+    private final long acknowledgedBytes;
+    private final long sentBytes;
+    private final int totalParts;
+    private final int acknowledgedParts;
+    private final int inflightParts;
+    private final long elapsedNanos;
+    private final double averageBytesPerSecond;
+    private final double recentBytesPerSecond;
+
+    public UploadProgress(long totalBytes, long acknowledgedBytes, long sentBytes, int totalParts,
+                          int acknowledgedParts, int inflightParts, long elapsedNanos,
+                          double averageBytesPerSecond, double recentBytesPerSecond) {
+        this.totalBytes = totalBytes;
+        this.acknowledgedBytes = acknowledgedBytes;
+        this.sentBytes = sentBytes;
+        this.totalParts = totalParts;
+        this.acknowledgedParts = acknowledgedParts;
+        this.inflightParts = inflightParts;
+        this.elapsedNanos = elapsedNanos;
+        this.averageBytesPerSecond = averageBytesPerSecond;
+        this.recentBytesPerSecond = recentBytesPerSecond;
+    }
+
+    /**
+     * 文件大小
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 已被服务端确认的字节数，包含续传前已上传的部分
+     */
+    public long getAcknowledgedBytes() {
+        return acknowledgedBytes;
+    }
+
+    /**
+     * 本次上传实际写出的字节数，包含重试重复发送的部分
+     */
+    public long getSentBytes() {
+        return sentBytes;
+    }
+
+    public int getTotalParts() {
+        return totalParts;
+    }
+
+    public int getAcknowledgedParts() {
+        return acknowledgedParts;
+    }
+
+    /**
+     * 正在发送中的分片数
+     */
+    public int getInflightParts() {
+        return inflightParts;
+    }
+
+    /**
+     * 自开始发送分片起经过的时间
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * 自开始发送分片起的平均写出速率，单位字节每秒
+     */
+    public double getAverageBytesPerSecond() {
+        return averageBytesPerSecond;
+    }
+
+    /**
+     * 最近约一秒内的写出速率，单位字节每秒
+     */
+    public double getRecentBytesPerSecond() {
+        return recentBytesPerSecond;
+    }
+
+    /**
+     * 按最近速率估算的剩余时间
+     *
+     * @return 剩余秒数，速率为0时返回-1
+     */
+    public long getEtaSeconds() {
+        double rate = recentBytesPerSecond > 0 ? recentBytesPerSecond : averageBytesPerSecond;
+        if (rate <= 0) {
+            return -1;
+        }
+        return (long) Math.ceil((totalBytes - acknowledgedBytes) / rate);
+    }
+
+    @Override
+    public String toString() {
+        return "UploadProgress{" + acknowledgedBytes + "/" + totalBytes + " bytes, "
+                + acknowledgedParts + "/" + totalParts + " parts, "
+                + (long) recentBytesPerSecond + " B/s}";
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.vod.vo.UploadSuccessResponse;
+
+/**
+ * 上传进度监听器的空实现，按需覆盖关心的回调
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public abstract class UploadProgressAdapter implements UploadProgressListener {
+
+    @Override
+    public void onHashProgress(long hashedBytes, long totalBytes) {
+    }
+
+    @Override
+    public void onPartStarted(FilePart part, UploadProgress progress) {
+    }
+
+    @Override
+    public void onPartRetried(FilePart part, int attempt, Exception cause, UploadProgress progress) {
+    }
+
+    @Override
+    public void onPartAcknowledged(FilePart part, UploadProgress progress) {
+    }
+
+    @Override
+    public void onBytesTransferred(long bytes, UploadProgress progress) {
+    }
+
+    @Override
+    public void onCompleted(UploadSuccessResponse response, UploadProgress progress) {
+    }
+
+    @Override
+    public void onFailed(Exception cause, UploadProgress progress) {
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.vod.vo.UploadSuccessResponse;
+
+/**
+ * 上传进度监听器。
+ * <p>
+ * 回调在上传线程中同步执行，分片相关的回调可能由多个线程并发调用，实现必须线程安全且尽快返回，
+ * 耗时的处理应转交其他线程。回调抛出的异常会被记录并忽略，不影响上传。
+ * 只关心部分事件时可继承 {@link UploadProgressAdapter}。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public interface UploadProgressListener {
+
+    /**
+     * 文件摘要计算进度，仅在需要读取文件计算摘要时回调
+     *
+     * @param hashedBytes 已计算的字节数
+     * @param totalBytes 文件大小，跟随写入中的文件时为-1
+     */
+    void onHashProgress(long hashedBytes, long totalBytes);
+
+    /**
+     * 分片开始发送，重试及推测重发时每次发送都会回调
+     *
+     * @param part 分片
+     * @param progress 当前进度
+     */
+    void onPartStarted(FilePart part, UploadProgress progress);
+
+    /**
+     * 分片发送失败，即将重试
+     *
+     * @param part 分片
+     * @param attempt 已失败的次数
+     * @param cause 失败原因
+     * @param progress 当前进度
+     */
+    void onPartRetried(FilePart part, int attempt, Exception cause, UploadProgress progress);
+
+    /**
+     * 分片已被服务端确认
+     *
+     * @param part 分片
+     * @param progress 当前进度
+     */
+    void onPartAcknowledged(FilePart part, UploadProgress progress);
+
+    /**
+     * 分片数据已写出，按数据块批量回调，不保证每次写出都回调
+     *
+     * @param bytes 本次新写出的字节数
+     * @param progress 当前进度
+     */
+    void onBytesTransferred(long bytes, UploadProgress progress);
+
+    /**
+     * 上传完成
+     *
+     * @param response 上传结果
+     * @param progress 最终进度
+     */
+    void onCompleted(UploadSuccessResponse response, UploadProgress progress);
+
+    /**
+     * 上传失败
+     *
+     * @param cause 失败原因
+     * @param progress 失败时的进度
+     */
+    void onFailed(Exception cause, UploadProgress progress);
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.vod.vo.UploadSuccessResponse;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单次上传的进度统计，汇总各分片线程的事件并转发给 {@link UploadProgressListener}。
+ * <p>
+ * 计数使用原子变量，写出字节按 {@link #REPORT_BYTES} 聚合后才回调，最近速率按约一秒的窗口计算。
+ * 监听器为null时所有方法直接返回。线程安全。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class UploadProgressTracker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UploadProgressTracker.class);
+
+    /** 写出字节累计到该值后回调一次 */
+    private static final int REPORT_BYTES = 64 * 1024;
+    /** 最近速率的统计窗口 */
+    private static final long RATE_WINDOW = TimeUnit.SECONDS.toNanos(1);
+
+    private final UploadProgressListener listener;
+
+    private volatile long totalBytes;
+    private volatile int totalParts;
+    private volatile long startNanos = System.nanoTime();
+    private final AtomicLong acknowledgedBytes = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+    private final AtomicInteger acknowledgedParts = new AtomicInteger();
+    private final AtomicInteger inflightParts = new AtomicInteger();
+
+    private long windowStart = startNanos;
+    private long windowSentBytes;
+    private double recentBytesPerSecond;
+
+    /**
+     * @param listener 进度监听器，为null时不统计
+     */
+    public UploadProgressTracker(UploadProgressListener listener) {
+        this.listener = listener;
+    }
+
+    public boolean isEnabled() {
+        return listener != null;
+    }
+
+    /**
+     * 开始发送分片前调用，记录总量和续传前已确认的部分，并开始计时
+     *
+     * @param totalBytes 文件大小
+     * @param totalParts 分片总数
+     * @param alreadyBytes 已确认的字节数
+     * @param alreadyParts 已确认的分片数
+     */
+    public void start(long totalBytes, int totalParts, long alreadyBytes, int alreadyParts) {
+        this.totalBytes = totalBytes;
+        this.totalParts = totalParts;
+        this.acknowledgedBytes.set(alreadyBytes);
+        this.acknowledgedParts.set(alreadyParts);
+        this.startNanos = System.nanoTime();
+        synchronized (this) {
+            windowStart = startNanos;
+            windowSentBytes = 0;
+        }
+    }
+
+    public void hashProgress(long hashedBytes, long totalBytes) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onHashProgress(hashedBytes, totalBytes);
+        } catch (RuntimeException e) {
+            LOGGER.warn("进度回调异常", e);
+        }
+    }
+
+    public void partStarted(FilePart part) {
+        if (listener == null) {
+            return;
+        }
+        inflightParts.incrementAndGet();
+        try {
+            listener.onPartStarted(part, snapshot());
+        } catch (RuntimeException e) {
+            LOGGER.warn("进度回调异常", e);
+        }
+    }
+
+    public void partRetried(FilePart part, int attempt, Exception cause) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onPartRetried(part, attempt, cause, snapshot());
+        } catch (RuntimeException e) {
+            LOGGER.warn("进度回调异常", e);
+        }
+    }
+
+    /**
+     * 分片的一次发送结束，无论成功与否都需调用
+     *
+     * @param part 分片
+     */
+    public void partFinished(FilePart part) {
+        if (listener == null) {
+            return;
+        }
+        inflightParts.decrementAndGet();
+    }
+
+    /**
+     * 分片已被服务端确认，推测重发时同一分片只调用一次
+     *
+     * @param part 分片
+     */
+    public void partAcknowledged(FilePart part) {
+        if (listener == null) {
+            return;
+        }
+        acknowledgedBytes.addAndGet(part.getDataSize());
+        acknowledgedParts.incrementAndGet();
+        try {
+            listener.onPartAcknowledged(part, snapshot());
+        } catch (RuntimeException e) {
+            LOGGER.warn("进度回调异常", e);
+        }
+    }
+
+    public void completed(UploadSuccessResponse response) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onCompleted(response, snapshot());
+        } catch (RuntimeException e) {
+            LOGGER.warn("进度回调异常", e);
+        }
+    }
+
+    public void failed(Exception cause) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onFailed(cause, snapshot());
+        } catch (RuntimeException e) {
+            LOGGER.warn("进度回调异常", e);
+        }
+    }
+
+    /**
+     * 包装分片请求体，统计写出的字节数
+     *
+     * @param entity 分片请求体
+     * @return 统计写出字节的请求体，不统计时返回原实体
+     */
+    public HttpEntity track(HttpEntity entity) {
+        return listener == null ? entity : new CountingEntity(entity);
+    }
+
+    /**
+     * 获取当前进度快照
+     *
+     * @return 进度快照
+     */
+    public UploadProgress snapshot() {
+        long now = System.nanoTime();
+        long elapsed = now - startNanos;
+        long sent = sentBytes.get();
+        double recent;
+        synchronized (this) {
+            long windowElapsed = now - windowStart;
+            if (windowElapsed >= RATE_WINDOW) {
+                recentBytesPerSecond = (sent - windowSentBytes) * (double) TimeUnit.SECONDS.toNanos(1) / windowElapsed;
+                windowStart = now;
+                windowSentBytes = sent;
+            }
+            recent = recentBytesPerSecond;
+        }
+        double average = elapsed <= 0 ? 0 : sent * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        return new UploadProgress(totalBytes, acknowledgedBytes.get(), sent, totalParts, acknowledgedParts.get(),
+                inflightParts.get(), elapsed, average, recent);
+    }
+
+    private void transferred(long bytes) {
+        sentBytes.addAndGet(bytes);
+        try {
+            listener.onBytesTransferred(bytes, snapshot());
+        } catch (RuntimeException e) {
+            LOGGER.warn("进度回调异常", e);
+        }
+    }
+
+    private class CountingEntity extends HttpEntityWrapper {
+
+        CountingEntity(HttpEntity entity) {
+            super(entity);
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            CountingOutputStream out = new CountingOutputStream(outStream);
+            try {
+                wrappedEntity.writeTo(out);
+            } finally {
+                out.report();
+            }
+        }
+    }
+
+    private class CountingOutputStream extends FilterOutputStream {
+        private long pending;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count(len);
+        }
+
+        private void count(int bytes) {
+            pending += bytes;
+            if (pending >= REPORT_BYTES) {
+                report();
+            }
+        }
+
+        void report() {
+            if (pending > 0) {
+                transferred(pending);
+                pending = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.vo;
+
+/**
+ * 批量拉取上传中单个URL的提交结果
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class MultiPullResult {
+
+    /** 源文件URL */
+    private final String url;
+    /** 文件名称 */
+    private final String fileName;
+    /** 是否已被服务端接受 */
+    private final boolean accepted;
+    /** 服务端返回的拉取任务ID，未返回时为null */
+    private final String taskId;
+    /** 返回码，网络失败时为SDK错误码 */
+    private final int code;
+    /** 错误信息 */
+    private final String message;
+
+    public MultiPullResult(String url, String fileName, boolean accepted, String taskId, int code, String message) {
+        this.url = url;
+        this.fileName = fileName;
+        this.accepted = accepted;
+        this.taskId = taskId;
+        this.code = code;
+        this.message = message;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public boolean isAccepted() {
+        return accepted;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "MultiPullResult{url=" + url + ", accepted=" + accepted + ", taskId=" + taskId
+                + ", code=" + code + ", message=" + message + "}";
+    }
+}
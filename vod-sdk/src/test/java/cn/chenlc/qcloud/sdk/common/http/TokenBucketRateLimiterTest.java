@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.common.http;
+
+import org.junit.Test;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link TokenBucketRateLimiter} 的单元测试，计时断言留有较大余量
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class TokenBucketRateLimiterTest {
+
+    @Test
+    public void unlimitedNeverWaits() throws InterruptedIOException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0);
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire(Long.MAX_VALUE / 200);
+        }
+        assertTrue(elapsedMillis(start) < 500);
+    }
+
+    @Test
+    public void debtIsWaitedOffAtTheConfiguredRate() throws InterruptedIOException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10000, 0);
+        long start = System.nanoTime();
+        // 令牌不为负即可通过，超出部分记为欠账
+        limiter.acquire(2000);
+        assertTrue(elapsedMillis(start) < 100);
+
+        limiter.acquire(1);
+        long elapsed = elapsedMillis(start);
+        assertTrue("elapsed " + elapsed, elapsed >= 150 && elapsed < 1500);
+    }
+
+    @Test
+    public void raisingRateShortensPendingWait() throws Exception {
+        final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1000, 0);
+        // 按原速率需要等待10秒
+        limiter.acquire(10000);
+        Waiter waiter = new Waiter(limiter);
+        waiter.start();
+        Thread.sleep(100);
+        assertTrue(waiter.isAlive());
+
+        long start = System.nanoTime();
+        limiter.setRate(1000000);
+        waiter.join(5000);
+        assertFalse(waiter.isAlive());
+        assertTrue(elapsedMillis(start) < 1000);
+        assertNull(waiter.error.get());
+        assertEquals(1000000, limiter.getBytesPerSecond());
+        assertEquals(1000000, limiter.getBurstBytes());
+    }
+
+    @Test
+    public void loweringRateLengthensPendingWait() throws InterruptedIOException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100000, 0);
+        // 按原速率只需等待50毫秒
+        limiter.acquire(5000);
+        limiter.setRate(10000, 0);
+
+        long start = System.nanoTime();
+        limiter.acquire(1);
+        long elapsed = elapsedMillis(start);
+        assertTrue("elapsed " + elapsed, elapsed >= 400 && elapsed < 3000);
+    }
+
+    @Test
+    public void disablingLimitReleasesWaiter() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100, 0);
+        limiter.acquire(10000);
+        Waiter waiter = new Waiter(limiter);
+        waiter.start();
+        Thread.sleep(100);
+        assertTrue(waiter.isAlive());
+
+        limiter.setRate(0);
+        waiter.join(5000);
+        assertFalse(waiter.isAlive());
+        assertNull(waiter.error.get());
+    }
+
+    @Test
+    public void interruptedWaiterFails() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100, 0);
+        limiter.acquire(10000);
+        Waiter waiter = new Waiter(limiter);
+        waiter.start();
+        Thread.sleep(100);
+
+        waiter.interrupt();
+        waiter.join(5000);
+        assertFalse(waiter.isAlive());
+        assertTrue(waiter.error.get() instanceof InterruptedIOException);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 在后台线程中申请1字节
+     */
+    private static class Waiter extends Thread {
+        private final TokenBucketRateLimiter limiter;
+        private final AtomicReference<Exception> error = new AtomicReference<>();
+
+        Waiter(TokenBucketRateLimiter limiter) {
+            this.limiter = limiter;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                limiter.acquire(1);
+            } catch (Exception e) {
+                error.set(e);
+            }
+        }
+    }
+}
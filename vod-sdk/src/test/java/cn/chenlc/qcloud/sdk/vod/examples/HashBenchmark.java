@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.examples;
+
+import cn.chenlc.qcloud.sdk.vod.upload.ReadAheadFileReader;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+
+/**
+ * 对比 DigestUtils.sha1Hex(FileInputStream) 与预读读取器计算文件SHA-1的吞吐。
+ * <p>
+ * 用法：HashBenchmark &lt;文件&gt; [单次读取字节数] [预读数] [轮数]，建议使用数GB的文件。
+ * 每轮两种方式各计算一次，先后顺序逐轮交替；每次计算前先 sync 并写 /proc/sys/vm/drop_caches 清空页缓存
+ * （需要root权限），无法清空时结果标记为 warm，此时先计算的一方会为后计算的一方预热缓存，测得的主要是CPU而不是读取延迟。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class HashBenchmark {
+
+    private static final File DROP_CACHES = new File("/proc/sys/vm/drop_caches");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: HashBenchmark <file> [bufferSize] [readAhead] [rounds]");
+            return;
+        }
+        File file = new File(args[0]);
+        int bufferSize = args.length > 1 ? Integer.parseInt(args[1]) : ReadAheadFileReader.DEFAULT_BUFFER_SIZE;
+        int readAhead = args.length > 2 ? Integer.parseInt(args[2]) : ReadAheadFileReader.DEFAULT_READ_AHEAD;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        String readAheadName = "ReadAhead(" + bufferSize + " x " + readAhead + ")";
+
+        for (int round = 0; round < rounds; round++) {
+            // 交替先后顺序，即使无法清空缓存，两种方式也各有一次在前
+            boolean streamFirst = round % 2 == 0;
+            String first = null;
+            for (int i = 0; i < 2; i++) {
+                boolean stream = streamFirst == (i == 0);
+                boolean cold = dropCaches();
+                long start = System.nanoTime();
+                String sha = stream ? streamSha1(file)
+                        : readAheadSha1(file, new ReadAheadFileReader(bufferSize, readAhead));
+                report(round, stream ? "FileInputStream" : readAheadName, cold, sha, file.length(),
+                        System.nanoTime() - start);
+                if (first == null) {
+                    first = sha;
+                } else if (!first.equals(sha)) {
+                    System.out.println("SHA-1 mismatch!");
+                }
+            }
+        }
+    }
+
+    /**
+     * 写回脏页并清空系统页缓存
+     *
+     * @return 是否已清空
+     */
+    private static boolean dropCaches() throws InterruptedException {
+        try {
+            new ProcessBuilder("sync").inheritIO().start().waitFor();
+            try (OutputStream out = new FileOutputStream(DROP_CACHES)) {
+                out.write('3');
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String streamSha1(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return DigestUtils.sha1Hex(in);
+        }
+    }
+
+    private static String readAheadSha1(File file, ReadAheadFileReader reader) throws IOException {
+        final MessageDigest sha1 = DigestUtils.getSha1Digest();
+        reader.read(file, new ReadAheadFileReader.BlockHandler() {
+            @Override
+            public void handle(byte[] data, int off, int len) {
+                sha1.update(data, off, len);
+            }
+        });
+        return Hex.encodeHexString(sha1.digest());
+    }
+
+    private static void report(int round, String name, boolean cold, String sha, long bytes, long nanos) {
+        double mbps = bytes / 1024.0 / 1024.0 / (nanos / 1e9);
+        System.out.printf("#%d %-32s %-4s %s %10.1f MB/s%n", round + 1, name, cold ? "cold" : "warm", sha, mbps);
+    }
+}
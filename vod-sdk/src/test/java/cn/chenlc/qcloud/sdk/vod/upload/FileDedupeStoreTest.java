@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.vod.vo.UploadSuccessResponse;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link FileDedupeStore} 的单元测试
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class FileDedupeStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File indexFile;
+
+    @Before
+    public void setUp() {
+        indexFile = new File(folder.getRoot(), "shared/dedupe.index");
+    }
+
+    @Test
+    public void entriesSurviveReload() throws IOException {
+        FileDedupeStore store = new FileDedupeStore(indexFile);
+        store.put("sha-a", new UploadSuccessResponse("file-a", "http://vod/a.mp4"));
+        store.put("sha-b", new UploadSuccessResponse("file-b", null));
+        assertEquals("file-a", store.get("sha-a").getFileId());
+
+        FileDedupeStore reloaded = new FileDedupeStore(indexFile);
+        assertEquals(2, reloaded.size());
+        assertResponse("file-a", "http://vod/a.mp4", reloaded.get("sha-a"));
+        assertResponse("file-b", null, reloaded.get("sha-b"));
+        assertNull(reloaded.get("sha-c"));
+    }
+
+    @Test
+    public void missReadsRecordsOfOtherWriters() throws IOException {
+        FileDedupeStore reader = new FileDedupeStore(indexFile);
+        FileDedupeStore writer = new FileDedupeStore(indexFile);
+        assertNull(reader.get("sha-a"));
+
+        writer.put("sha-a", new UploadSuccessResponse("file-a", "http://vod/a.mp4"));
+        assertResponse("file-a", "http://vod/a.mp4", reader.get("sha-a"));
+    }
+
+    @Test
+    public void truncatedTrailingLineIsSkipped() throws IOException {
+        new FileDedupeStore(indexFile).put("sha-a", new UploadSuccessResponse("file-a", "http://vod/a.mp4"));
+        // 其他写入者追加 b 的记录时崩溃，播放地址只写了一半
+        append("sha-b\tfile-b\thttp://vod/b");
+
+        FileDedupeStore reader = new FileDedupeStore(indexFile);
+        assertNull(reader.get("sha-b"));
+
+        new FileDedupeStore(indexFile).put("sha-c", new UploadSuccessResponse("file-c", "http://vod/c.mp4"));
+        // 已缓存不完整行的读取者同样不会得到被截断的记录
+        assertResponse("file-c", "http://vod/c.mp4", reader.get("sha-c"));
+        assertNull(reader.get("sha-b"));
+
+        FileDedupeStore reloaded = new FileDedupeStore(indexFile);
+        assertEquals(2, reloaded.size());
+        assertResponse("file-a", "http://vod/a.mp4", reloaded.get("sha-a"));
+        assertNull(reloaded.get("sha-b"));
+        assertResponse("file-c", "http://vod/c.mp4", reloaded.get("sha-c"));
+    }
+
+    @Test
+    public void lineTruncatedAtSeparatorIsSkipped() throws IOException {
+        append("sha-b\tfile-b");
+        FileDedupeStore store = new FileDedupeStore(indexFile);
+        store.put("sha-c", new UploadSuccessResponse("file-c", null));
+
+        FileDedupeStore reloaded = new FileDedupeStore(indexFile);
+        assertEquals(1, reloaded.size());
+        assertNull(reloaded.get("sha-b"));
+        assertResponse("file-c", null, reloaded.get("sha-c"));
+    }
+
+    private static void assertResponse(String fileId, String url, UploadSuccessResponse response) {
+        assertEquals(fileId, response.getFileId());
+        assertEquals(url, response.getUrl());
+    }
+
+    private void append(String text) throws IOException {
+        File parent = indexFile.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Can not create directory: " + parent);
+        }
+        try (OutputStream out = new FileOutputStream(indexFile, true)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.vod.vo.UploadInitResponse;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link PartVerifier} 的单元测试
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class PartVerifierTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private byte[] data;
+    private FileDigest digest;
+    private PartSource source;
+    private ExecutorService executor;
+    private PartVerifier verifier;
+
+    @Before
+    public void setUp() throws IOException {
+        data = new byte[3500];
+        new Random(1).nextBytes(data);
+        File file = folder.newFile("video.mp4");
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(data);
+        }
+        digest = FileDigest.compute(file, 1000);
+        source = new FileChannelPartSource(file);
+        executor = Executors.newFixedThreadPool(2);
+        verifier = new PartVerifier(executor, 2);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        source.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void absentServerPartsHaveNoMismatch() throws IOException {
+        assertTrue(verifier.findMismatches(source, digest, 1000, null).isEmpty());
+        assertTrue(verifier.findMismatches(source, digest, 1000,
+                Collections.<UploadInitResponse.PartInfo>emptyList()).isEmpty());
+    }
+
+    @Test
+    public void zeroDataSizeComparesWithLocalDigest() throws IOException {
+        List<UploadInitResponse.PartInfo> parts = Arrays.asList(
+                new UploadInitResponse.PartInfo(0, 1000, md5(0, 1000)),
+                new UploadInitResponse.PartInfo(1000, 1000, "0123456789abcdef0123456789abcdef"),
+                new UploadInitResponse.PartInfo(2000, 1000, null),
+                new UploadInitResponse.PartInfo(3000, 500, md5(3000, 500).toUpperCase()));
+
+        List<FilePart> mismatches = verifier.findMismatches(source, digest, 0, parts);
+
+        assertEquals(Arrays.asList(digest.getParts().get(1)), mismatches);
+    }
+
+    @Test
+    public void differentDataSizeReadsLocalData() throws IOException {
+        List<UploadInitResponse.PartInfo> parts = Arrays.asList(
+                new UploadInitResponse.PartInfo(0, 2000, md5(0, 2000)),
+                new UploadInitResponse.PartInfo(2000, 1500, md5(0, 1500)));
+
+        List<FilePart> mismatches = verifier.findMismatches(source, digest, 2000, parts);
+
+        assertEquals(1, mismatches.size());
+        assertEquals(2000, mismatches.get(0).getOffset());
+        assertEquals(1500, mismatches.get(0).getDataSize());
+        assertEquals(md5(2000, 1500), mismatches.get(0).getDataMd5());
+    }
+
+    @Test
+    public void acknowledgedPartsAreNotReadAgain() throws IOException {
+        // 从断点日志恢复的摘要可能没有分片MD5
+        List<FilePart> bareParts = new ArrayList<>();
+        for (FilePart part : digest.getParts()) {
+            bareParts.add(new FilePart(part.getOffset(), part.getDataSize()));
+        }
+        FileDigest bare = new FileDigest(digest.getFileSha(), digest.getFileSize(), digest.getDataSize(), bareParts);
+        String wrong = "0123456789abcdef0123456789abcdef";
+        List<UploadInitResponse.PartInfo> parts = Arrays.asList(
+                new UploadInitResponse.PartInfo(0, 1000, wrong),
+                new UploadInitResponse.PartInfo(1000, 1000, wrong));
+
+        List<FilePart> mismatches = verifier.findMismatches(source, bare, 0, parts, Arrays.asList(0L));
+
+        assertEquals(1, mismatches.size());
+        assertEquals(1000, mismatches.get(0).getOffset());
+        assertEquals(md5(1000, 1000), mismatches.get(0).getDataMd5());
+    }
+
+    private String md5(int offset, int length) {
+        return DigestUtils.md5Hex(Arrays.copyOfRange(data, offset, offset + length));
+    }
+}
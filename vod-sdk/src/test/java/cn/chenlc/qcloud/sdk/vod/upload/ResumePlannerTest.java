@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import cn.chenlc.qcloud.sdk.common.exceptions.ParamException;
+import cn.chenlc.qcloud.sdk.vod.vo.UploadInitResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * {@link ResumePlanner} 的单元测试
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class ResumePlannerTest {
+
+    private FileDigest digest;
+
+    @Before
+    public void setUp() throws IOException {
+        byte[] data = new byte[3500];
+        new Random(1).nextBytes(data);
+        digest = FileDigest.compute(new ByteArrayInputStream(data), 1000);
+    }
+
+    @Test
+    public void zeroDataSizeFallsBackToLocalDataSize() throws ParamException {
+        List<FilePart> missing = ResumePlanner.plan(digest, 0,
+                Arrays.asList(new UploadInitResponse.PartInfo(1000, 1000, null)));
+
+        assertEquals(3, missing.size());
+        assertSame(digest.getParts().get(0), missing.get(0));
+        assertSame(digest.getParts().get(2), missing.get(1));
+        assertSame(digest.getParts().get(3), missing.get(2));
+    }
+
+    @Test
+    public void negativeDataSizeFallsBackToLocalDataSize() throws ParamException {
+        List<FilePart> missing = ResumePlanner.plan(digest, -1, null);
+
+        assertEquals(digest.getParts(), missing);
+    }
+
+    @Test
+    public void absentServerPartsMeansAllPartsMissing() throws ParamException {
+        assertEquals(digest.getParts(), ResumePlanner.plan(digest, 1000, null));
+        assertEquals(digest.getParts(), ResumePlanner.plan(digest, 1000,
+                Collections.<UploadInitResponse.PartInfo>emptyList()));
+    }
+
+    @Test
+    public void serverDataSizeOverridesLocalDataSize() throws ParamException {
+        List<FilePart> missing = ResumePlanner.plan(digest, 2000,
+                Arrays.asList(new UploadInitResponse.PartInfo(0, 2000, null)));
+
+        assertEquals(1, missing.size());
+        assertEquals(2000, missing.get(0).getOffset());
+        assertEquals(1500, missing.get(0).getDataSize());
+        assertNull(missing.get(0).getDataMd5());
+    }
+
+    @Test
+    public void lastServerPartMayBeShort() throws ParamException {
+        List<FilePart> missing = ResumePlanner.plan(digest, 0,
+                Arrays.asList(new UploadInitResponse.PartInfo(3000, 500, null)));
+
+        assertEquals(digest.getParts().subList(0, 3), missing);
+    }
+
+    @Test(expected = ParamException.class)
+    public void unalignedServerPartIsRejected() throws ParamException {
+        ResumePlanner.plan(digest, 0, Arrays.asList(new UploadInitResponse.PartInfo(500, 1000, null)));
+    }
+
+    @Test(expected = ParamException.class)
+    public void wrongServerPartSizeIsRejected() throws ParamException {
+        ResumePlanner.plan(digest, 0, Arrays.asList(new UploadInitResponse.PartInfo(3000, 1000, null)));
+    }
+
+    @Test(expected = ParamException.class)
+    public void serverPartBeyondFileIsRejected() throws ParamException {
+        ResumePlanner.plan(digest, 0, Arrays.asList(new UploadInitResponse.PartInfo(4000, 1000, null)));
+    }
+}
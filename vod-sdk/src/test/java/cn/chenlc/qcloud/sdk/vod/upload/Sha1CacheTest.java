@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link Sha1Cache} 的单元测试
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class Sha1CacheTest {
+
+    private static final String SHA_A = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa";
+    private static final String SHA_B = "bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb";
+    private static final String SHA_C = "cccccccccccccccccccccccccccccccccccccccc";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File cacheFile;
+    private File a;
+    private File b;
+    private File c;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheFile = new File(folder.getRoot(), "cache/sha1.cache");
+        a = write("a.mp4", "aaa");
+        b = write("b.mp4", "bbbb");
+        c = write("c.mp4", "ccccc");
+    }
+
+    @Test
+    public void entriesSurviveReload() throws IOException {
+        Sha1Cache cache = new Sha1Cache(cacheFile);
+        assertTrue(cache.put(a, SHA_A, cache.identify(a)));
+        assertTrue(cache.put(b, SHA_B, cache.identify(b)));
+        assertEquals(SHA_A, cache.get(a));
+
+        Sha1Cache reloaded = new Sha1Cache(cacheFile);
+        assertEquals(SHA_A, reloaded.get(a));
+        assertEquals(SHA_B, reloaded.get(b));
+        assertNull(reloaded.get(c));
+    }
+
+    @Test
+    public void modifiedFileMisses() throws IOException {
+        Sha1Cache cache = new Sha1Cache(cacheFile);
+        cache.put(a, SHA_A, cache.identify(a));
+        assertTrue(a.setLastModified(a.lastModified() - 10000));
+
+        assertNull(cache.get(a));
+        assertNull(new Sha1Cache(cacheFile).get(a));
+    }
+
+    @Test
+    public void fileModifiedWhileHashingIsNotRecorded() throws IOException {
+        Sha1Cache cache = new Sha1Cache(cacheFile);
+        Sha1Cache.Entry identity = cache.identify(a);
+        write("a.mp4", "changed");
+
+        assertFalse(cache.put(a, SHA_A, identity));
+        assertNull(cache.get(a));
+        assertNull(new Sha1Cache(cacheFile).get(a));
+    }
+
+    @Test
+    public void truncatedTrailingLineIsDropped() throws IOException {
+        Sha1Cache cache = new Sha1Cache(cacheFile);
+        cache.put(a, SHA_A, cache.identify(a));
+        cache.put(b, SHA_B, cache.identify(b));
+        // 追加 c 的记录时进程崩溃，路径只写了一半
+        String line = SHA_C + "\t" + c.length() + "\t" + c.lastModified() + "\t-\t" + c.getAbsolutePath();
+        append(line.substring(0, line.length() - 3));
+
+        Sha1Cache reloaded = new Sha1Cache(cacheFile);
+        assertEquals(SHA_A, reloaded.get(a));
+        assertEquals(SHA_B, reloaded.get(b));
+        assertNull(reloaded.get(c));
+        assertTrue(reloaded.put(c, SHA_C, reloaded.identify(c)));
+
+        Sha1Cache again = new Sha1Cache(cacheFile);
+        assertEquals(SHA_A, again.get(a));
+        assertEquals(SHA_B, again.get(b));
+        assertEquals(SHA_C, again.get(c));
+        assertEquals(3, Files.readAllLines(cacheFile.toPath(), StandardCharsets.UTF_8).size());
+    }
+
+    private File write(String name, String content) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    private void append(String text) throws IOException {
+        try (OutputStream out = new FileOutputStream(cacheFile, true)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.upload;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link UploadCheckpointJournal} 的单元测试
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class UploadCheckpointJournalTest {
+
+    private static final long DATA_SIZE = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private FileDigest digest;
+    private UploadCheckpointJournal journal;
+
+    @Before
+    public void setUp() throws IOException {
+        file = folder.newFile("video.mp4");
+        byte[] data = new byte[3500];
+        new Random(1).nextBytes(data);
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(data);
+        }
+        digest = FileDigest.compute(file, DATA_SIZE);
+        journal = new UploadCheckpointJournal(folder.newFolder("journal"));
+    }
+
+    @Test
+    public void loadRestoresDigestAndAcknowledgedParts() throws IOException {
+        try (UploadCheckpointJournal.Checkpoint checkpoint = journal.create(file, digest)) {
+            checkpoint.acknowledge(digest.getParts().get(0));
+            checkpoint.acknowledge(digest.getParts().get(3));
+        }
+
+        UploadCheckpointJournal.Checkpoint loaded = journal.load(file);
+        assertNotNull(loaded);
+        assertEquals(new HashSet<>(Arrays.asList(0L, 3000L)), loaded.getAcknowledged());
+        assertEquals(digest.getFileSha(), loaded.getDigest().getFileSha());
+        assertEquals(digest.getDataSize(), loaded.getDigest().getDataSize());
+        assertEquals(digest.getParts().size(), loaded.getDigest().getParts().size());
+        for (int i = 0; i < digest.getParts().size(); i++) {
+            FilePart expected = digest.getParts().get(i);
+            FilePart actual = loaded.getDigest().getParts().get(i);
+            assertEquals(expected.getOffset(), actual.getOffset());
+            assertEquals(expected.getDataSize(), actual.getDataSize());
+            assertEquals(expected.getDataMd5(), actual.getDataMd5());
+        }
+    }
+
+    @Test
+    public void loadIgnoresTruncatedTrailingLine() throws IOException {
+        try (UploadCheckpointJournal.Checkpoint checkpoint = journal.create(file, digest)) {
+            checkpoint.acknowledge(digest.getParts().get(0));
+            checkpoint.acknowledge(digest.getParts().get(2));
+        }
+        // 写 "3000\n" 时进程崩溃，只留下前两个字符
+        append(journalFile(), "30");
+
+        UploadCheckpointJournal.Checkpoint loaded = journal.load(file);
+        assertNotNull(loaded);
+        assertEquals(new HashSet<>(Arrays.asList(0L, 2000L)), loaded.getAcknowledged());
+        assertFalse(loaded.isAcknowledged(3000));
+    }
+
+    @Test
+    public void loadStopsAtFirstInvalidLine() throws IOException {
+        try (UploadCheckpointJournal.Checkpoint checkpoint = journal.create(file, digest)) {
+            checkpoint.acknowledge(digest.getParts().get(1));
+        }
+        append(journalFile(), "20\n2000\n");
+
+        UploadCheckpointJournal.Checkpoint loaded = journal.load(file);
+        assertNotNull(loaded);
+        assertEquals(new HashSet<>(Arrays.asList(1000L)), loaded.getAcknowledged());
+    }
+
+    @Test
+    public void loadDiscardsJournalOfModifiedFile() throws IOException {
+        try (UploadCheckpointJournal.Checkpoint checkpoint = journal.create(file, digest)) {
+            checkpoint.acknowledge(digest.getParts().get(0));
+        }
+        File journalFile = journalFile();
+        append(file, "x");
+
+        assertNull(journal.load(file));
+        assertFalse(journalFile.exists());
+    }
+
+    @Test
+    public void resetAndCompleteClearTheJournal() throws IOException {
+        UploadCheckpointJournal.Checkpoint checkpoint = journal.create(file, digest);
+        checkpoint.acknowledge(digest.getParts().get(0));
+        checkpoint.reset();
+        checkpoint.close();
+
+        UploadCheckpointJournal.Checkpoint loaded = journal.load(file);
+        assertNotNull(loaded);
+        assertTrue(loaded.getAcknowledged().isEmpty());
+
+        loaded.complete();
+        assertNull(journal.load(file));
+        assertFalse(journalFile().exists());
+    }
+
+    private File journalFile() {
+        return new File(journal.getDir(), digest.getFileSha() + ".journal");
+    }
+
+    private static void append(File target, String text) throws IOException {
+        try (OutputStream out = new FileOutputStream(target, true)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.sync;
+
+import cn.chenlc.qcloud.sdk.vod.vo.UploadSuccessResponse;
+
+import java.io.File;
+
+/**
+ * 监视目录自动上传的事件监听，回调在结果线程中依次执行
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public interface IngestListener {
+
+    /**
+     * 文件上传成功
+     *
+     * @param file 文件
+     * @param response 上传结果
+     */
+    void onIngested(File file, UploadSuccessResponse response);
+
+    /**
+     * 文件上传失败，文件再次变化时会重新上传
+     *
+     * @param file 文件
+     * @param cause 失败原因
+     */
+    void onFailed(File file, Exception cause);
+}
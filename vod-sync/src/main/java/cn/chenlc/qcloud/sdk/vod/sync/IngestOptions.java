@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.sync;
+
+import cn.chenlc.qcloud.sdk.vod.IVodUpload.UploadOptionalParams;
+
+import java.io.FileFilter;
+
+/**
+ * 监视目录自动上传参数
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class IngestOptions {
+
+    /** 默认的文件稳定时长，单位毫秒 */
+    private static final long DEFAULT_STABLE_PERIOD = 5 * 1000;
+    /** 默认同时上传的文件数 */
+    private static final int DEFAULT_MAX_CONCURRENT_FILES = 2;
+    /** 默认同时执行的上传请求数 */
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
+    /** 文件大小和修改时间持续该时长不变后才开始上传，单位毫秒 */
+    private long stablePeriod = DEFAULT_STABLE_PERIOD;
+    /** 同时上传的最大文件数 */
+    private int maxConcurrentFiles = DEFAULT_MAX_CONCURRENT_FILES;
+    /** 全部文件同时执行的最大初始化及分片请求数 */
+    private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+    /** 筛选要上传的文件，为空时上传全部文件 */
+    private FileFilter fileFilter;
+    /** 开始监视时是否上传目录中已有的文件 */
+    private boolean includeExisting;
+    /** 每个文件的上传参数 */
+    private UploadOptionalParams uploadParams;
+
+    public long getStablePeriod() {
+        return stablePeriod;
+    }
+
+    public IngestOptions setStablePeriod(long stablePeriod) {
+        this.stablePeriod = stablePeriod;
+        return this;
+    }
+
+    public int getMaxConcurrentFiles() {
+        return maxConcurrentFiles;
+    }
+
+    public IngestOptions setMaxConcurrentFiles(int maxConcurrentFiles) {
+        this.maxConcurrentFiles = maxConcurrentFiles;
+        return this;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public IngestOptions setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        return this;
+    }
+
+    public FileFilter getFileFilter() {
+        return fileFilter;
+    }
+
+    public IngestOptions setFileFilter(FileFilter fileFilter) {
+        this.fileFilter = fileFilter;
+        return this;
+    }
+
+    public boolean isIncludeExisting() {
+        return includeExisting;
+    }
+
+    public IngestOptions setIncludeExisting(boolean includeExisting) {
+        this.includeExisting = includeExisting;
+        return this;
+    }
+
+    public UploadOptionalParams getUploadParams() {
+        return uploadParams;
+    }
+
+    public IngestOptions setUploadParams(UploadOptionalParams uploadParams) {
+        this.uploadParams = uploadParams;
+        return this;
+    }
+}
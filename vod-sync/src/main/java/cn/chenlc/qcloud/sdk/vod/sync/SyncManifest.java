@@ -0,0 +1,280 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 同步清单，记录本地文件的相对路径、大小、修改时间、SHA-1以及上传后的点播文件ID。
+ * <p>
+ * 清单文件每行记录一个文件：SHA、大小、修改时间、文件ID、播放地址、分类ID、路径，以制表符分隔。
+ * 更新时追加新行，加载时后出现的行覆盖先出现的行，{@link #retain(Collection)} 时或最后一行不完整时重写清单文件。线程安全。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class SyncManifest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SyncManifest.class);
+
+    private static final String SEPARATOR = "\t";
+    private static final String NONE = "-";
+
+    private final File manifestFile;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Entry> bySha = new HashMap<>();
+    private int lineCount;
+
+    public SyncManifest(File manifestFile) throws IOException {
+        this.manifestFile = manifestFile;
+        load();
+    }
+
+    public File getManifestFile() {
+        return manifestFile;
+    }
+
+    /**
+     * 查询文件记录
+     *
+     * @param path 相对同步根目录的路径，以 / 分隔
+     * @return 文件记录，不存在时返回null
+     */
+    public synchronized Entry get(String path) {
+        return entries.get(path);
+    }
+
+    /**
+     * 按内容查询已上传的文件，用于识别移动或复制的文件
+     *
+     * @param sha 文件SHA-1
+     * @return 任一内容相同的文件记录，不存在时返回null
+     */
+    public synchronized Entry findBySha(String sha) {
+        return bySha.get(sha);
+    }
+
+    /**
+     * 记录文件，立即追加到清单文件
+     *
+     * @param entry 文件记录
+     * @throws IOException 写清单文件失败时抛出
+     */
+    public synchronized void put(Entry entry) throws IOException {
+        index(entry);
+        File parent = manifestFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Can not create directory: " + parent);
+        }
+        try (OutputStream out = new FileOutputStream(manifestFile, true)) {
+            out.write(entry.toLine().getBytes(StandardCharsets.UTF_8));
+        }
+        lineCount++;
+    }
+
+    /**
+     * 只保留指定路径的记录，并重写清单文件
+     *
+     * @param paths 要保留的路径
+     * @return 移除的记录数
+     * @throws IOException 写清单文件失败时抛出
+     */
+    public synchronized int retain(Collection<String> paths) throws IOException {
+        Set<String> keep = new HashSet<>(paths);
+        int removed = 0;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            if (!keep.contains(it.next().getKey())) {
+                it.remove();
+                removed++;
+            }
+        }
+        if (removed > 0 || lineCount > entries.size()) {
+            bySha.clear();
+            for (Entry entry : entries.values()) {
+                bySha.put(entry.sha, entry);
+            }
+            compact();
+        }
+        return removed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized List<Entry> entries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    private void index(Entry entry) {
+        entries.put(entry.path, entry);
+        bySha.put(entry.sha, entry);
+    }
+
+    private void load() throws IOException {
+        if (!manifestFile.isFile()) {
+            return;
+        }
+        boolean terminated = endsWithNewline(manifestFile);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(manifestFile), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while (line != null) {
+                String next = reader.readLine();
+                if (next == null && !terminated) {
+                    // 写入时进程崩溃，最后一行只写了一半，后续追加会与之拼成一行，丢弃后重写清单
+                    LOGGER.info("丢弃同步清单末尾不完整的行：{}", line);
+                    compact();
+                    return;
+                }
+                lineCount++;
+                parseLine(line);
+                line = next;
+            }
+        }
+    }
+
+    private void parseLine(String line) {
+        String[] fields = line.split(SEPARATOR, 7);
+        if (fields.length != 7) {
+            return;
+        }
+        try {
+            index(new Entry(fields[6], Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[0],
+                    fields[3], NONE.equals(fields[4]) ? null : fields[4],
+                    NONE.equals(fields[5]) ? null : Integer.valueOf(fields[5])));
+        } catch (NumberFormatException e) {
+            LOGGER.debug("忽略无法解析的清单行：{}", line);
+        }
+    }
+
+    private static boolean endsWithNewline(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long length = raf.length();
+            if (length == 0) {
+                return true;
+            }
+            raf.seek(length - 1);
+            return raf.read() == '\n';
+        }
+    }
+
+    private void compact() throws IOException {
+        File tmp = new File(manifestFile.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            for (Entry entry : entries.values()) {
+                out.write(entry.toLine().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        // 原子替换，任何时刻磁盘上都有完整的清单
+        Files.move(tmp.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        lineCount = entries.size();
+    }
+
+    /**
+     * 清单中的一个文件
+     */
+    public static class Entry {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final String sha;
+        private final String fileId;
+        private final String url;
+        private final Integer classId;
+
+        public Entry(String path, long size, long lastModified, String sha, String fileId, String url,
+                     Integer classId) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sha = sha;
+            this.fileId = fileId;
+            this.url = url;
+            this.classId = classId;
+        }
+
+        /**
+         * 相对同步根目录的路径，以 / 分隔
+         */
+        public String getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public String getSha() {
+            return sha;
+        }
+
+        public String getFileId() {
+            return fileId;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public Integer getClassId() {
+            return classId;
+        }
+
+        /**
+         * 文件大小和修改时间是否与记录一致
+         */
+        public boolean matches(long size, long lastModified) {
+            return this.size == size && this.lastModified == lastModified;
+        }
+
+        String toLine() {
+            return sha + SEPARATOR + size + SEPARATOR + lastModified + SEPARATOR + fileId + SEPARATOR
+                    + (url == null ? NONE : url) + SEPARATOR + (classId == null ? NONE : classId)
+                    + SEPARATOR + path + "\n";
+        }
+    }
+}
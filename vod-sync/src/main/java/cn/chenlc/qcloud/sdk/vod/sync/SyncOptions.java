@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.sync;
+
+import cn.chenlc.qcloud.sdk.vod.IVodUpload.UploadOptionalParams;
+
+import java.io.FileFilter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 目录同步参数
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class SyncOptions {
+
+    /** 默认同时上传的文件数 */
+    private static final int DEFAULT_MAX_CONCURRENT_FILES = 4;
+    /** 默认同时执行的上传请求数 */
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
+    /** 同时上传的最大文件数，包括正在计算SHA的文件 */
+    private int maxConcurrentFiles = DEFAULT_MAX_CONCURRENT_FILES;
+    /** 全部文件同时执行的最大初始化及分片请求数 */
+    private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+    /** 筛选要同步的文件，为空时同步全部文件 */
+    private FileFilter fileFilter;
+    /** 只统计需要上传的文件，不实际上传，也不修改清单 */
+    private boolean dryRun;
+    /** 相对目录到点播分类ID的映射，以 / 分隔，按最长前缀匹配 */
+    private final Map<String, Integer> classMapping = new LinkedHashMap<>();
+    /** 每个文件的上传参数模板，分类ID会被目录映射覆盖 */
+    private UploadOptionalParams uploadParams;
+
+    public int getMaxConcurrentFiles() {
+        return maxConcurrentFiles;
+    }
+
+    public SyncOptions setMaxConcurrentFiles(int maxConcurrentFiles) {
+        this.maxConcurrentFiles = maxConcurrentFiles;
+        return this;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public SyncOptions setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        return this;
+    }
+
+    public FileFilter getFileFilter() {
+        return fileFilter;
+    }
+
+    public SyncOptions setFileFilter(FileFilter fileFilter) {
+        this.fileFilter = fileFilter;
+        return this;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public SyncOptions setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+        return this;
+    }
+
+    public Map<String, Integer> getClassMapping() {
+        return classMapping;
+    }
+
+    /**
+     * 将目录下的文件上传到指定分类，子目录另有映射时以子目录为准
+     *
+     * @param directory 相对同步根目录的目录，以 / 分隔，空字符串表示根目录
+     * @param classId 点播分类ID
+     * @return 当前参数
+     */
+    public SyncOptions mapClass(String directory, int classId) {
+        classMapping.put(normalizeDirectory(directory), classId);
+        return this;
+    }
+
+    public UploadOptionalParams getUploadParams() {
+        return uploadParams;
+    }
+
+    public SyncOptions setUploadParams(UploadOptionalParams uploadParams) {
+        this.uploadParams = uploadParams;
+        return this;
+    }
+
+    /**
+     * 按最长前缀查找文件所属的分类
+     *
+     * @param path 相对同步根目录的文件路径，以 / 分隔
+     * @return 分类ID，没有匹配的映射时返回null
+     */
+    Integer classIdOf(String path) {
+        Integer classId = null;
+        int longest = -1;
+        for (Map.Entry<String, Integer> mapping : classMapping.entrySet()) {
+            String dir = mapping.getKey();
+            if ((dir.isEmpty() || path.startsWith(dir + "/")) && dir.length() > longest) {
+                longest = dir.length();
+                classId = mapping.getValue();
+            }
+        }
+        return classId;
+    }
+
+    private static String normalizeDirectory(String directory) {
+        String dir = directory.replace('\\', '/');
+        while (dir.startsWith("./")) {
+            dir = dir.substring(2);
+        }
+        while (dir.startsWith("/")) {
+            dir = dir.substring(1);
+        }
+        while (dir.endsWith("/")) {
+            dir = dir.substring(0, dir.length() - 1);
+        }
+        return ".".equals(dir) ? "" : dir;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.sync;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 一次目录同步的结果统计
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class SyncReport {
+
+    private int scanned;
+    private int unchanged;
+    private int uploaded;
+    private int deduplicated;
+    private int removed;
+    private long uploadedBytes;
+    private final Map<String, Exception> failures = new LinkedHashMap<>();
+
+    /**
+     * 扫描到的文件数
+     */
+    public synchronized int getScanned() {
+        return scanned;
+    }
+
+    /**
+     * 大小和修改时间与清单一致、直接跳过的文件数
+     */
+    public synchronized int getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * 上传的文件数，试运行时为需要上传的文件数
+     */
+    public synchronized int getUploaded() {
+        return uploaded;
+    }
+
+    /**
+     * 内容与清单中已上传的文件相同、无需上传的文件数
+     */
+    public synchronized int getDeduplicated() {
+        return deduplicated;
+    }
+
+    /**
+     * 本地已不存在、从清单移除的文件数，点播中的文件不会被删除
+     */
+    public synchronized int getRemoved() {
+        return removed;
+    }
+
+    public synchronized long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    /**
+     * 上传失败的文件及原因，键为相对路径
+     */
+    public synchronized Map<String, Exception> getFailures() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+
+    public synchronized boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    synchronized void scanned() {
+        scanned++;
+    }
+
+    synchronized void unchanged() {
+        unchanged++;
+    }
+
+    synchronized void uploaded(long bytes) {
+        uploaded++;
+        uploadedBytes += bytes;
+    }
+
+    synchronized void deduplicated() {
+        deduplicated++;
+    }
+
+    synchronized void removed(int count) {
+        removed += count;
+    }
+
+    synchronized void failed(String path, Exception cause) {
+        failures.put(path, cause);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SyncReport{scanned=" + scanned + ", unchanged=" + unchanged + ", uploaded=" + uploaded
+                + " (" + uploadedBytes + " bytes), deduplicated=" + deduplicated + ", removed=" + removed
+                + ", failed=" + failures.size() + "}";
+    }
+}
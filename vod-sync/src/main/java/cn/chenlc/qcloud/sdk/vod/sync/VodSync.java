@@ -0,0 +1,256 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.sync;
+
+import cn.chenlc.qcloud.sdk.common.exceptions.QcloudSdkException;
+import cn.chenlc.qcloud.sdk.vod.IVodUpload;
+import cn.chenlc.qcloud.sdk.vod.IVodUpload.UploadOptionalParams;
+import cn.chenlc.qcloud.sdk.vod.upload.BatchUpload;
+import cn.chenlc.qcloud.sdk.vod.upload.BatchUploadResult;
+import cn.chenlc.qcloud.sdk.vod.upload.HashScheduler;
+import cn.chenlc.qcloud.sdk.vod.upload.PartScheduler;
+import cn.chenlc.qcloud.sdk.vod.upload.ReadAheadFileReader;
+import cn.chenlc.qcloud.sdk.vod.upload.Sha1Cache;
+import cn.chenlc.qcloud.sdk.vod.upload.UploadHandle;
+import cn.chenlc.qcloud.sdk.vod.vo.UploadSuccessResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 将本地目录同步到点播服务，只上传新增或变化的文件。
+ * <p>
+ * 清单记录每个已上传文件的大小、修改时间、SHA-1和文件ID：大小和修改时间与清单一致的文件直接跳过，
+ * 不读取文件也不发送请求；变化的文件先计算SHA-1，内容与清单中已上传的文件相同（如移动或复制的文件）时
+ * 直接复用其文件ID，否则上传。SHA-1经由与上传共用的 {@link HashScheduler} 预读计算，记录在清单旁的缓存中，上传时无需再次计算。
+ * <p>
+ * 上传通过 {@link BatchUpload} 进行，同时上传的文件数和请求数均有上限。点播中的文件不会被删除。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class VodSync {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VodSync.class);
+
+    /** 默认的清单文件名，位于同步根目录下 */
+    public static final String DEFAULT_MANIFEST_NAME = ".vodsync";
+
+    /** SHA缓存文件相对清单文件的后缀 */
+    private static final String SHA_CACHE_SUFFIX = ".sha1";
+
+    private final IVodUpload uploader;
+    private final File root;
+    private final File manifestFile;
+    private final SyncOptions options;
+
+    /**
+     * 使用同步根目录下的默认清单文件
+     *
+     * @param uploader 点播上传接口
+     * @param root 同步根目录
+     * @param options 同步参数，为null时使用默认值
+     */
+    public VodSync(IVodUpload uploader, File root, SyncOptions options) {
+        this(uploader, root, new File(root, DEFAULT_MANIFEST_NAME), options);
+    }
+
+    /**
+     * @param uploader 点播上传接口
+     * @param root 同步根目录
+     * @param manifestFile 清单文件
+     * @param options 同步参数，为null时使用默认值
+     */
+    public VodSync(IVodUpload uploader, File root, File manifestFile, SyncOptions options) {
+        this.uploader = uploader;
+        this.root = root;
+        this.manifestFile = manifestFile;
+        this.options = options == null ? new SyncOptions() : options;
+    }
+
+    /**
+     * 执行一次同步，全部文件处理完后返回。单个文件上传失败不影响其他文件，失败记录在结果中
+     *
+     * @return 同步结果
+     * @throws IOException 遍历目录或读写清单失败时抛出
+     */
+    public SyncReport sync() throws IOException {
+        if (!root.isDirectory()) {
+            throw new IOException("Not a directory: " + root);
+        }
+        final SyncManifest manifest = new SyncManifest(manifestFile);
+        final SyncReport report = new SyncReport();
+        final Map<File, String> changed = new HashMap<>();
+        final List<String> paths = new ArrayList<>();
+
+        for (File file : scan()) {
+            String path = relativePath(file);
+            paths.add(path);
+            report.scanned();
+            SyncManifest.Entry entry = manifest.get(path);
+            if (entry != null && entry.matches(file.length(), file.lastModified())) {
+                report.unchanged();
+            } else {
+                changed.put(file, path);
+            }
+        }
+        LOGGER.info("扫描到 [{}] 个文件，其中 [{}] 个新增或变化", paths.size(), changed.size());
+
+        if (options.isDryRun()) {
+            for (File file : changed.keySet()) {
+                report.uploaded(file.length());
+            }
+            return report;
+        }
+        if (!changed.isEmpty()) {
+            upload(changed, manifest, report);
+        }
+        report.removed(manifest.retain(paths));
+        LOGGER.info("同步结束：{}", report);
+        return report;
+    }
+
+    private void upload(final Map<File, String> changed, final SyncManifest manifest, final SyncReport report)
+            throws IOException {
+        final Sha1Cache sha1Cache = new Sha1Cache(new File(manifestFile.getPath() + SHA_CACHE_SUFFIX));
+        final PartScheduler scheduler = new PartScheduler(Math.max(1, options.getMaxConcurrentRequests()));
+        // 同步前的SHA计算与上传时的摘要计算共用调度器，同一磁盘上同时只顺序扫描一个文件
+        UploadOptionalParams base = options.getUploadParams();
+        final HashScheduler hashScheduler = base == null || base.getHashScheduler() == null
+                ? new HashScheduler() : base.getHashScheduler();
+        ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactory() {
+            private final AtomicInteger index = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "vod-sync-" + index.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            BatchUpload batch = new BatchUpload(new BatchUpload.FileUploader() {
+                @Override
+                public UploadSuccessResponse upload(File file, UploadHandle handle)
+                        throws QcloudSdkException, IOException {
+                    return syncFile(file, changed.get(file), sha1Cache, hashScheduler, scheduler, manifest,
+                            report);
+                }
+            }, executor, options.getMaxConcurrentFiles(), null);
+            for (File file : changed.keySet()) {
+                batch.submit(file);
+            }
+            batch.close();
+            BatchUploadResult result;
+            while ((result = batch.next()) != null) {
+                if (!result.isSuccess()) {
+                    String path = changed.get(result.getFile());
+                    LOGGER.warn("文件 [{}] 同步失败", path, result.getFailure());
+                    report.failed(path, result.getFailure());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private UploadSuccessResponse syncFile(File file, String path, Sha1Cache sha1Cache, HashScheduler hashScheduler,
+                                           PartScheduler scheduler, SyncManifest manifest, SyncReport report)
+            throws QcloudSdkException, IOException {
+        UploadOptionalParams ops = options.getUploadParams() == null
+                ? new UploadOptionalParams() : new UploadOptionalParams(options.getUploadParams());
+        // 先记录文件属性，计算过程中文件被修改时，下次同步会重新检查
+        long size = file.length();
+        long lastModified = file.lastModified();
+        String sha = sha1Cache.get(file);
+        if (sha == null) {
+            Sha1Cache.Entry identity = sha1Cache.identify(file);
+            ReadAheadFileReader reader = ops.getHashBufferSize() == null ? new ReadAheadFileReader()
+                    : new ReadAheadFileReader(ops.getHashBufferSize(), ReadAheadFileReader.DEFAULT_READ_AHEAD);
+            sha = hashScheduler.sha1Hex(file, reader);
+            sha1Cache.put(file, sha, identity);
+        }
+
+        // 相同内容再次上传时服务端只会返回已有文件，因此无论分类映射如何都直接复用
+        SyncManifest.Entry same = manifest.findBySha(sha);
+        if (same != null) {
+            LOGGER.debug("文件 [{}] 与已上传的 [{}] 内容相同，复用文件ID [{}]", path, same.getPath(), same.getFileId());
+            manifest.put(new SyncManifest.Entry(path, size, lastModified, sha, same.getFileId(), same.getUrl(),
+                    same.getClassId()));
+            report.deduplicated();
+            return new UploadSuccessResponse(same.getFileId(), same.getUrl());
+        }
+
+        ops.setSha1Cache(sha1Cache);
+        ops.setHashScheduler(hashScheduler);
+        ops.setPartScheduler(scheduler);
+        if (ops.getConcurrency() == null) {
+            ops.setConcurrency(scheduler.getMaxConcurrent());
+        }
+        Integer classId = options.classIdOf(path);
+        if (classId != null) {
+            ops.setClassId(classId);
+        }
+        UploadSuccessResponse response = uploader.uploadVodFile(file, ops);
+        manifest.put(new SyncManifest.Entry(path, size, lastModified, sha, response.getFileId(), response.getUrl(),
+                ops.getClassId()));
+        report.uploaded(size);
+        LOGGER.debug("文件 [{}] 上传完成，文件ID [{}]", path, response.getFileId());
+        return response;
+    }
+
+    private List<File> scan() throws IOException {
+        final List<File> files = new ArrayList<>();
+        final String manifestPath = manifestFile.getAbsolutePath();
+        Files.walkFileTree(root.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+                File file = path.toFile();
+                if (!attrs.isRegularFile() || file.getAbsolutePath().startsWith(manifestPath)) {
+                    // 跳过清单文件及其临时文件、SHA缓存
+                    return FileVisitResult.CONTINUE;
+                }
+                if (options.getFileFilter() == null || options.getFileFilter().accept(file)) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+
+    private String relativePath(File file) {
+        return root.toPath().relativize(file.toPath()).toString().replace(File.separatorChar, '/');
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.sync;
+
+import cn.chenlc.qcloud.sdk.common.consts.Region;
+import cn.chenlc.qcloud.sdk.common.http.ClientConfig;
+import cn.chenlc.qcloud.sdk.common.sign.Credential;
+import cn.chenlc.qcloud.sdk.vod.VodClient;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 目录同步命令行入口。
+ * <p>
+ * 用法：java -jar vod-sync.jar [选项] &lt;目录&gt;，密钥可通过选项或环境变量 QCLOUD_APP_ID、
+ * QCLOUD_SECRET_ID、QCLOUD_SECRET_KEY 指定。vod-sync.jar 在 package 阶段生成于 vod-sync/target 下，已包含全部依赖；
+ * vod-sync-版本号.jar 不含依赖，需要自行设置 classpath。全部文件同步成功时退出码为0，有文件失败时为1，参数错误时为2。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class VodSyncCli {
+
+    private static final String USAGE = "用法：vod-sync [选项] <目录>\n"
+            + "  --app-id <appId>          应用ID，默认读取环境变量 QCLOUD_APP_ID\n"
+            + "  --secret-id <secretId>    密钥ID，默认读取环境变量 QCLOUD_SECRET_ID\n"
+            + "  --secret-key <secretKey>  密钥，默认读取环境变量 QCLOUD_SECRET_KEY\n"
+            + "  --region <region>         区域，如 bj、gz、sh\n"
+            + "  --manifest <file>         清单文件，默认为 <目录>/" + VodSync.DEFAULT_MANIFEST_NAME + "\n"
+            + "  --files <n>               同时上传的文件数\n"
+            + "  --requests <n>            同时执行的上传请求数\n"
+            + "  --class <dir>=<classId>   将目录下的文件上传到指定分类，可重复指定\n"
+            + "  --ext <mp4,flv,...>       只同步指定后缀的文件\n"
+            + "  --dry-run                 只统计需要上传的文件，不上传";
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * 执行命令
+     *
+     * @param args 命令行参数
+     * @return 退出码
+     */
+    public static int run(String[] args) {
+        String appId = System.getenv("QCLOUD_APP_ID");
+        String secretId = System.getenv("QCLOUD_SECRET_ID");
+        String secretKey = System.getenv("QCLOUD_SECRET_KEY");
+        int parsedAppId;
+        Region region = null;
+        File manifest = null;
+        File root = null;
+        SyncOptions options = new SyncOptions();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--app-id":
+                        appId = value(args, ++i, arg);
+                        break;
+                    case "--secret-id":
+                        secretId = value(args, ++i, arg);
+                        break;
+                    case "--secret-key":
+                        secretKey = value(args, ++i, arg);
+                        break;
+                    case "--region":
+                        region = region(value(args, ++i, arg));
+                        break;
+                    case "--manifest":
+                        manifest = new File(value(args, ++i, arg));
+                        break;
+                    case "--files":
+                        options.setMaxConcurrentFiles(Integer.parseInt(value(args, ++i, arg)));
+                        break;
+                    case "--requests":
+                        options.setMaxConcurrentRequests(Integer.parseInt(value(args, ++i, arg)));
+                        break;
+                    case "--class":
+                        String mapping = value(args, ++i, arg);
+                        int eq = mapping.lastIndexOf('=');
+                        if (eq < 0) {
+                            throw new IllegalArgumentException("分类映射格式应为 <dir>=<classId>：" + mapping);
+                        }
+                        options.mapClass(mapping.substring(0, eq), Integer.parseInt(mapping.substring(eq + 1)));
+                        break;
+                    case "--ext":
+                        options.setFileFilter(extensionFilter(value(args, ++i, arg)));
+                        break;
+                    case "--dry-run":
+                        options.setDryRun(true);
+                        break;
+                    case "-h":
+                    case "--help":
+                        System.out.println(USAGE);
+                        return 0;
+                    default:
+                        if (arg.startsWith("-") || root != null) {
+                            throw new IllegalArgumentException("无法识别的参数：" + arg);
+                        }
+                        root = new File(arg);
+                }
+            }
+            if (root == null) {
+                throw new IllegalArgumentException("缺少要同步的目录");
+            }
+            if (appId == null || secretId == null || secretKey == null) {
+                throw new IllegalArgumentException("缺少 appId、secretId 或 secretKey");
+            }
+            parsedAppId = Integer.parseInt(appId);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+
+        ClientConfig config = new ClientConfig();
+        if (region != null) {
+            config.setRegion(region);
+        }
+        VodClient client = new VodClient(config, new Credential(parsedAppId, secretId, secretKey));
+        VodSync sync = manifest == null
+                ? new VodSync(client, root, options) : new VodSync(client, root, manifest, options);
+        try {
+            SyncReport report = sync.sync();
+            System.out.println(report);
+            for (Map.Entry<String, Exception> failure : report.getFailures().entrySet()) {
+                System.err.println("同步失败：" + failure.getKey() + "：" + failure.getValue());
+            }
+            return report.isSuccess() ? 0 : 1;
+        } catch (Exception e) {
+            System.err.println("同步失败：" + e);
+            return 1;
+        }
+    }
+
+    private static String value(String[] args, int index, String name) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("参数 " + name + " 缺少取值");
+        }
+        return args[index];
+    }
+
+    private static Region region(String value) {
+        for (Region region : Region.values()) {
+            if (region.getValue().equalsIgnoreCase(value)) {
+                return region;
+            }
+        }
+        throw new IllegalArgumentException("无法识别的区域：" + value);
+    }
+
+    private static FileFilter extensionFilter(String extensions) {
+        final Set<String> accepted = new HashSet<>();
+        for (String ext : extensions.split(",")) {
+            String e = ext.trim().toLowerCase(Locale.ROOT);
+            if (!e.isEmpty()) {
+                accepted.add(e.startsWith(".") ? e.substring(1) : e);
+            }
+        }
+        return new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                String name = file.getName();
+                int dot = name.lastIndexOf('.');
+                return dot >= 0 && accepted.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+            }
+        };
+    }
+}
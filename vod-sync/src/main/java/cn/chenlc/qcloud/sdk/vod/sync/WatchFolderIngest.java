@@ -0,0 +1,405 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlc.qcloud.sdk.vod.sync;
+
+import cn.chenlc.qcloud.sdk.vod.IVodUpload;
+import cn.chenlc.qcloud.sdk.vod.IVodUpload.BatchUploadParams;
+import cn.chenlc.qcloud.sdk.vod.upload.BatchUpload;
+import cn.chenlc.qcloud.sdk.vod.upload.BatchUploadResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 监视目录，文件写入完成后自动上传到点播服务。
+ * <p>
+ * 通过 {@link WatchService} 接收文件创建和修改事件，无需定时扫描目录；新建的子目录会自动加入监视。
+ * 收到事件的文件进入待定状态，大小和修改时间持续 stablePeriod 不变后视为写入完成，
+ * 交给 {@link BatchUpload} 以有限的并发上传，结果通过 {@link IngestListener} 回调。
+ * 已上传的文件只有再次变化后才会重新上传。
+ * <p>
+ * 事件队列溢出时重新遍历监视的目录，找出尚未上传的文件。
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class WatchFolderIngest implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WatchFolderIngest.class);
+
+    /** 检查文件是否稳定的最小间隔，单位毫秒 */
+    private static final long MIN_CHECK_INTERVAL = 50;
+
+    private final IVodUpload uploader;
+    private final IngestOptions options;
+    private final IngestListener listener;
+    private final WatchService watchService;
+
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    private final List<Path> roots = new ArrayList<>();
+    private final Map<Path, Candidate> pending = new HashMap<>();
+    /** 已提交上传的文件及提交时的修改时间 */
+    private final Map<Path, Long> ingested = new ConcurrentHashMap<>();
+
+    private BatchUpload batch;
+    private Thread watcher;
+    private Thread resultDispatcher;
+    private volatile boolean closed;
+
+    /**
+     * @param uploader 点播上传接口
+     * @param options 参数，为null时使用默认值
+     * @param listener 上传结果监听
+     * @throws IOException 创建 WatchService 失败时抛出
+     */
+    public WatchFolderIngest(IVodUpload uploader, IngestOptions options, IngestListener listener) throws IOException {
+        this.uploader = uploader;
+        this.options = options == null ? new IngestOptions() : options;
+        this.listener = listener;
+        this.watchService = FileSystems.getDefault().newWatchService();
+    }
+
+    /**
+     * 监视目录及其全部子目录，可在启动前后调用
+     *
+     * @param dir 目录
+     * @throws IOException 注册监视失败时抛出
+     */
+    public synchronized void watch(File dir) throws IOException {
+        if (!dir.isDirectory()) {
+            throw new IOException("Not a directory: " + dir);
+        }
+        Path root = dir.toPath().toAbsolutePath();
+        roots.add(root);
+        register(root, options.isIncludeExisting());
+        LOGGER.info("开始监视目录：{}", root);
+    }
+
+    /**
+     * 启动监视线程和结果回调线程
+     */
+    public synchronized void start() {
+        if (watcher != null) {
+            throw new IllegalStateException("Already started.");
+        }
+        BatchUploadParams batchParams = new BatchUploadParams();
+        batchParams.setMaxConcurrentFiles(options.getMaxConcurrentFiles());
+        batchParams.setMaxConcurrentRequests(options.getMaxConcurrentRequests());
+        batch = uploader.startBatchUpload(batchParams, options.getUploadParams());
+
+        watcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watchLoop();
+            }
+        }, "vod-ingest-watcher");
+        watcher.setDaemon(true);
+        resultDispatcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dispatchResults();
+            }
+        }, "vod-ingest-results");
+        resultDispatcher.setDaemon(true);
+        watcher.start();
+        resultDispatcher.start();
+    }
+
+    /**
+     * 等待稳定的文件数
+     */
+    public synchronized int getPendingFiles() {
+        return pending.size();
+    }
+
+    /**
+     * 停止监视，尚未稳定的文件不再上传，等待已开始的上传结束并回调结果后返回
+     *
+     * @throws IOException 关闭 WatchService 失败时抛出
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        watchService.close();
+        try {
+            if (watcher != null) {
+                watcher.join();
+            }
+            if (batch != null) {
+                batch.close();
+            }
+            if (resultDispatcher != null) {
+                resultDispatcher.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watchLoop() {
+        long interval = Math.max(MIN_CHECK_INTERVAL, options.getStablePeriod() / 4);
+        try {
+            while (!closed) {
+                WatchKey key = watchService.poll(interval, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    handle(key);
+                }
+                submitStable();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // 已停止监视
+        } catch (RuntimeException e) {
+            LOGGER.error("目录监视异常退出", e);
+        }
+    }
+
+    private synchronized void handle(WatchKey key) {
+        Path dir = keys.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                LOGGER.warn("目录事件溢出，重新遍历监视的目录");
+                rescan();
+                continue;
+            }
+            if (dir == null) {
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                forget(path);
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    // 子目录中的文件可能在注册监视之前就已创建
+                    register(path, true);
+                } catch (IOException e) {
+                    LOGGER.warn("监视子目录失败：{}", path, e);
+                }
+            } else {
+                candidate(path);
+            }
+        }
+        if (!key.reset()) {
+            keys.remove(key);
+        }
+    }
+
+    /**
+     * 文件或目录被删除、移走后不再记录，避免长时间运行时记录无限增长
+     */
+    private void forget(Path path) {
+        pending.remove(path);
+        ingested.remove(path);
+        if (!keys.containsValue(path)) {
+            return;
+        }
+        // 被删除或移走的是监视中的目录，其下的文件可能不会再收到删除事件
+        Iterator<Map.Entry<WatchKey, Path>> keyIt = keys.entrySet().iterator();
+        while (keyIt.hasNext()) {
+            Map.Entry<WatchKey, Path> entry = keyIt.next();
+            if (entry.getValue().startsWith(path)) {
+                entry.getKey().cancel();
+                keyIt.remove();
+            }
+        }
+        removeUnder(pending.keySet(), path);
+        removeUnder(ingested.keySet(), path);
+    }
+
+    private static void removeUnder(Set<Path> paths, Path dir) {
+        Iterator<Path> it = paths.iterator();
+        while (it.hasNext()) {
+            if (it.next().startsWith(dir)) {
+                it.remove();
+            }
+        }
+    }
+
+    private void rescan() {
+        // 溢出时可能丢失了删除事件，清除已不存在的文件
+        Iterator<Path> it = ingested.keySet().iterator();
+        while (it.hasNext()) {
+            if (!Files.exists(it.next())) {
+                it.remove();
+            }
+        }
+        for (Path root : roots) {
+            try {
+                register(root, true);
+            } catch (IOException e) {
+                LOGGER.warn("遍历目录失败：{}", root, e);
+            }
+        }
+    }
+
+    /**
+     * 注册目录及子目录的监视，include 为true时将其中的文件加入待定，否则记为已上传
+     */
+    private void register(Path root, final boolean include) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!keys.containsValue(dir)) {
+                    keys.put(dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), dir);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (include) {
+                    candidate(file);
+                } else if (attrs.isRegularFile()) {
+                    ingested.put(file, attrs.lastModifiedTime().toMillis());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                LOGGER.debug("无法访问文件：{}", file, e);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void candidate(Path path) {
+        File file = path.toFile();
+        if (!file.isFile() || options.getFileFilter() != null && !options.getFileFilter().accept(file)) {
+            return;
+        }
+        long size = file.length();
+        long lastModified = file.lastModified();
+        Long submitted = ingested.get(path);
+        if (submitted != null && submitted == lastModified) {
+            return;
+        }
+        Candidate candidate = pending.get(path);
+        if (candidate == null) {
+            pending.put(path, new Candidate(size, lastModified));
+        } else {
+            candidate.update(size, lastModified);
+        }
+    }
+
+    private synchronized void submitStable() {
+        long now = System.nanoTime();
+        long stable = TimeUnit.MILLISECONDS.toNanos(Math.max(0, options.getStablePeriod()));
+        Iterator<Map.Entry<Path, Candidate>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Path, Candidate> entry = it.next();
+            File file = entry.getKey().toFile();
+            Candidate candidate = entry.getValue();
+            if (!file.isFile()) {
+                it.remove();
+                continue;
+            }
+            if (candidate.update(file.length(), file.lastModified()) || now - candidate.since < stable) {
+                continue;
+            }
+            it.remove();
+            ingested.put(entry.getKey(), candidate.lastModified);
+            try {
+                batch.submit(file);
+                LOGGER.debug("文件已稳定，开始上传：{}", file);
+            } catch (IOException | IllegalStateException e) {
+                LOGGER.warn("提交上传失败：{}", file, e);
+                ingested.remove(entry.getKey());
+            }
+        }
+    }
+
+    private void dispatchResults() {
+        try {
+            BatchUploadResult result;
+            while ((result = batch.next()) != null) {
+                if (!result.isSuccess() || !result.getFile().exists()) {
+                    // 失败时允许文件再次变化后重新上传；上传期间被删除或移走的文件不再记录
+                    ingested.remove(result.getFile().toPath());
+                }
+                if (listener == null) {
+                    continue;
+                }
+                try {
+                    if (result.isSuccess()) {
+                        listener.onIngested(result.getFile(), result.getResponse());
+                    } else {
+                        listener.onFailed(result.getFile(), result.getFailure());
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.warn("上传结果回调异常", e);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("等待上传结果被中断", e);
+        }
+    }
+
+    /**
+     * 等待稳定的文件，记录最近一次观察到变化的时间
+     */
+    private static class Candidate {
+        private long size;
+        private long lastModified;
+        private long since;
+
+        Candidate(long size, long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.since = System.nanoTime();
+        }
+
+        /**
+         * 更新文件属性
+         *
+         * @return 属性发生变化时返回true
+         */
+        boolean update(long size, long lastModified) {
+            if (this.size == size && this.lastModified == lastModified) {
+                return false;
+            }
+            this.size = size;
+            this.lastModified = lastModified;
+            this.since = System.nanoTime();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlc.qcloud.sdk.vod.sync;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link SyncManifest} 的单元测试
+ *
+ * @author chenlc
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class SyncManifestTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File manifestFile;
+
+    @Before
+    public void setUp() {
+        manifestFile = new File(folder.getRoot(), "sync/manifest");
+    }
+
+    @Test
+    public void entriesSurviveReload() throws IOException {
+        SyncManifest manifest = new SyncManifest(manifestFile);
+        manifest.put(entry("a.mp4", "sha-a", "file-a", "http://vod/a.mp4", 12));
+        manifest.put(entry("dir/b c.mp4", "sha-b", "file-b", null, null));
+
+        SyncManifest reloaded = new SyncManifest(manifestFile);
+        assertEquals(2, reloaded.size());
+        assertEntryEquals(entry("a.mp4", "sha-a", "file-a", "http://vod/a.mp4", 12), reloaded.get("a.mp4"));
+        assertEntryEquals(entry("dir/b c.mp4", "sha-b", "file-b", null, null), reloaded.get("dir/b c.mp4"));
+        assertEquals("dir/b c.mp4", reloaded.findBySha("sha-b").getPath());
+    }
+
+    @Test
+    public void laterLinesOverrideEarlierOnes() throws IOException {
+        SyncManifest manifest = new SyncManifest(manifestFile);
+        manifest.put(entry("a.mp4", "sha-a", "file-a", null, null));
+        manifest.put(entry("a.mp4", "sha-a2", "file-a2", null, 3));
+
+        SyncManifest reloaded = new SyncManifest(manifestFile);
+        assertEquals(1, reloaded.size());
+        assertEntryEquals(entry("a.mp4", "sha-a2", "file-a2", null, 3), reloaded.get("a.mp4"));
+    }
+
+    @Test
+    public void retainRewritesManifest() throws IOException {
+        SyncManifest manifest = new SyncManifest(manifestFile);
+        manifest.put(entry("a.mp4", "sha-a", "file-a", null, null));
+        manifest.put(entry("b.mp4", "sha-b", "file-b", null, null));
+        manifest.put(entry("b.mp4", "sha-b", "file-b2", null, null));
+
+        assertEquals(1, manifest.retain(Arrays.asList("b.mp4")));
+        assertNull(manifest.findBySha("sha-a"));
+        assertEquals(1, lines().length);
+
+        SyncManifest reloaded = new SyncManifest(manifestFile);
+        assertNull(reloaded.get("a.mp4"));
+        assertEquals("file-b2", reloaded.get("b.mp4").getFileId());
+    }
+
+    @Test
+    public void truncatedTrailingLineIsDropped() throws IOException {
+        SyncManifest manifest = new SyncManifest(manifestFile);
+        manifest.put(entry("a.mp4", "sha-a", "file-a", null, 12));
+        // 追加 b 的记录时进程崩溃，路径只写了一半
+        String line = entry("dir/b.mp4", "sha-b", "file-b", null, 12).toLine();
+        append(line.substring(0, line.length() - 5));
+
+        SyncManifest reloaded = new SyncManifest(manifestFile);
+        assertEquals(1, reloaded.size());
+        assertNull(reloaded.findBySha("sha-b"));
+        reloaded.put(entry("c.mp4", "sha-c", "file-c", null, null));
+
+        SyncManifest again = new SyncManifest(manifestFile);
+        assertEquals(2, again.size());
+        assertEntryEquals(entry("a.mp4", "sha-a", "file-a", null, 12), again.get("a.mp4"));
+        assertEntryEquals(entry("c.mp4", "sha-c", "file-c", null, null), again.get("c.mp4"));
+        assertEquals(2, lines().length);
+    }
+
+    private static SyncManifest.Entry entry(String path, String sha, String fileId, String url, Integer classId) {
+        return new SyncManifest.Entry(path, path.length(), 1500000000000L + path.length(), sha, fileId, url, classId);
+    }
+
+    private static void assertEntryEquals(SyncManifest.Entry expected, SyncManifest.Entry actual) {
+        assertEquals(expected.toLine(), actual.toLine());
+    }
+
+    private String[] lines() throws IOException {
+        return new String(Files.readAllBytes(manifestFile.toPath()), StandardCharsets.UTF_8).split("\n");
+    }
+
+    private void append(String text) throws IOException {
+        try (OutputStream out = new FileOutputStream(manifestFile, true)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}